@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Репозитории-заглушки для замеров сервисов без базы: метод возвращает заранее подготовленный
+ * результат по имени, остальные методы бросают исключение, чтобы лишний запрос не остался незамеченным.
+ */
+public final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    public static <T> T stub(Class<T> repository, Map<String, Object> results) {
+        Object proxy = Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (instance, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "equals":
+                                return instance == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(instance);
+                            default:
+                                return repository.getSimpleName() + " stub";
+                        }
+                    }
+                    if (!results.containsKey(method.getName())) {
+                        throw new UnsupportedOperationException(repository.getSimpleName() + "." + method.getName());
+                    }
+                    return results.get(method.getName());
+                });
+        return repository.cast(proxy);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmarks.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingMapper.toBookingResponseDtoList для ответов GET /bookings и /bookings/owner:
+ * страница по умолчанию (10), крупная страница (100) и выгрузка (1000). У каждой брони свои вещь и арендатор,
+ * как в выборке из базы. Аллокации: добавить -prof gc.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar BookingMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int bookings;
+
+    private List<Booking> source;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").version(0L).build();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        source = new ArrayList<>(bookings);
+        for (long i = 1; i <= bookings; i++) {
+            Item item = Item.builder().id(i).name("Item " + i).description("Description " + i).available(true)
+                    .owner(owner).version(0L).build();
+            User booker = User.builder().id(i + 1).name("booker" + i).email("booker" + i + "@mail.ru")
+                    .version(0L).build();
+            source.add(Booking.builder().id(i).item(item).booker(booker).status(BookingStatus.APPROVED)
+                    .start(start.plusDays(i)).end(start.plusDays(i).plusHours(2)).ownerId(owner.getId())
+                    .version(0L).build());
+        }
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> toBookingResponseDtoList() {
+        return BookingMapper.INSTANCE.toBookingResponseDtoList(source);
+    }
+}
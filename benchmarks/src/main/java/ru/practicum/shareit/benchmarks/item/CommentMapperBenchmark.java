@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmarks.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommentMapper.toCommentDto так, как его вызывают GET /items/{id} и GET /items: по отзыву за раз,
+ * с именем автора из связанной сущности. Аллокации: добавить -prof gc.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar CommentMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int comments;
+
+    private List<Comment> source;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").version(0L).build();
+        Item item = Item.builder().id(1L).name("Item").description("Description").available(true)
+                .owner(owner).version(0L).build();
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        source = new ArrayList<>(comments);
+        for (long i = 1; i <= comments; i++) {
+            User author = User.builder().id(i + 1).name("author" + i).email("author" + i + "@mail.ru")
+                    .version(0L).build();
+            source.add(Comment.builder().id(i).text("Comment " + i).item(item).author(author)
+                    .created(created.plusMinutes(i)).build());
+        }
+    }
+
+    @Benchmark
+    public List<CommentDto> toCommentDto() {
+        List<CommentDto> result = new ArrayList<>(source.size());
+        for (Comment comment : source) {
+            result.add(CommentMapper.INSTANCE.toCommentDto(comment));
+        }
+        return result;
+    }
+}
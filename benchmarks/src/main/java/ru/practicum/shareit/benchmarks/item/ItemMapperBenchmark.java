@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmarks.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemMapper на трех путях: список вещей в ответах (toItemDtoList), разбор пакета POST /items/batch (toItem)
+ * и применение PATCH к загруженной вещи (updateItemByGivenDto). Аллокации: добавить -prof gc.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar ItemMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private List<Item> entities;
+    private List<ItemDto> dtos;
+    private List<ItemDto> patches;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").version(0L).build();
+        entities = new ArrayList<>(items);
+        dtos = new ArrayList<>(items);
+        patches = new ArrayList<>(items);
+        for (long i = 1; i <= items; i++) {
+            entities.add(Item.builder().id(i).name("Item " + i).description("Description " + i).available(true)
+                    .owner(owner).requestId(i % 3 == 0 ? i : null).version(0L).build());
+            dtos.add(ItemDto.builder().name("Item " + i).description("Description " + i).available(true)
+                    .requestId(i % 3 == 0 ? i : null).build());
+            patches.add(ItemDto.builder().name("Renamed " + i).build());
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> toItemDtoList() {
+        return ItemMapper.INSTANCE.toItemDtoList(entities);
+    }
+
+    @Benchmark
+    public List<Item> toItem() {
+        List<Item> result = new ArrayList<>(dtos.size());
+        for (ItemDto dto : dtos) {
+            result.add(ItemMapper.INSTANCE.toItem(dto));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Item> updateItemByGivenDto() {
+        List<Item> result = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            result.add(ItemMapper.INSTANCE.updateItemByGivenDto(patches.get(i), entities.get(i)));
+        }
+        return result;
+    }
+}
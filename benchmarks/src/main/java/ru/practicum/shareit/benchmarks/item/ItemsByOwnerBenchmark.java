@@ -0,0 +1,126 @@
+package ru.practicum.shareit.benchmarks.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmarks.RepositoryStubs.stub;
+
+/**
+ * ItemServiceImpl.getByUser (GET /items владельцем) без базы: репозитории возвращают готовые выборки,
+ * замеряется сборка ответа - раскладка последних и следующих бронирований по вещам и отзывов.
+ * У каждой вещи по последнему и следующему бронированию. Аллокации: добавить -prof gc.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar ItemsByOwnerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemsByOwnerBenchmark {
+
+    private static final long OWNER_ID = 1L;
+
+    @Param({"10", "100"})
+    private int items;
+
+    @Param({"0", "20"})
+    private int comments;
+
+    private ItemServiceImpl itemService;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(OWNER_ID).name("owner").email("owner@mail.ru").version(0L).build();
+        List<Item> ownerItems = new ArrayList<>(items);
+        List<ItemBookingView> lastBookings = new ArrayList<>(items);
+        List<ItemBookingView> nextBookings = new ArrayList<>(items);
+        for (long i = 1; i <= items; i++) {
+            ownerItems.add(Item.builder().id(i).name("Item " + i).description("Description " + i).available(true)
+                    .owner(owner).version(0L).build());
+            lastBookings.add(new View(2 * i, i + 1, i));
+            nextBookings.add(new View(2 * i + 1, i + 2, i));
+        }
+        Item commented = ownerItems.isEmpty() ? null : ownerItems.get(0);
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Comment> ownerComments = new ArrayList<>(comments);
+        for (long i = 1; i <= comments; i++) {
+            ownerComments.add(Comment.builder().id(i).text("Comment " + i).item(commented).author(owner)
+                    .created(created.plusMinutes(i)).build());
+        }
+
+        UserRepository userRepository = stub(UserRepository.class, Map.of("existsById", true));
+        itemService = new ItemServiceImpl(
+                stub(ItemRepository.class, Map.of("findItemsByOwnerIdOrderById", ownerItems)),
+                userRepository,
+                stub(BookingRepository.class, Map.of(
+                        "findLastBookingsByItemIds", lastBookings,
+                        "findNextBookingsByItemIds", nextBookings)),
+                stub(CommentRepository.class, Map.of("findByAuthorId", ownerComments)),
+                stub(ItemSearchEngine.class, Map.of()),
+                new UserExistenceCheck(userRepository, new SimpleMeterRegistry()),
+                stub(ItemRequestRepository.class, Map.of()));
+    }
+
+    @Benchmark
+    public List<ItemDto> getByUser() {
+        return itemService.getByUser(OWNER_ID, 0, items);
+    }
+
+    private static final class View implements ItemBookingView {
+
+        private final Long id;
+        private final Long bookerId;
+        private final Long itemId;
+
+        View(Long id, Long bookerId, Long itemId) {
+            this.id = id;
+            this.bookerId = bookerId;
+            this.itemId = itemId;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getBookerId() {
+            return bookerId;
+        }
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+    }
+}
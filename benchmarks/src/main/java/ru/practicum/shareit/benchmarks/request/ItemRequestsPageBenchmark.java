@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmarks.request;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.RequestItemView;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmarks.RepositoryStubs.stub;
+
+/**
+ * ItemRequestServiceImpl.getAllPaginated (GET /requests/all) без базы: путь через
+ * convertToItemRequestDtoWithItems - маппинг страницы запросов, группировка ответов и раскладка по запросам.
+ * Группировку отдельно сравнивает RequestItemsGroupingBenchmark. Аллокации: добавить -prof gc.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar ItemRequestsPageBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemRequestsPageBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"10", "50"})
+    private int requests;
+
+    @Param({"0", "1", "10"})
+    private int itemsPerRequest;
+
+    private ItemRequestServiceImpl requestService;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<ItemRequest> page = new ArrayList<>(requests);
+        List<RequestItemView> answers = new ArrayList<>(requests * itemsPerRequest);
+        long itemId = 1;
+        // Страница новых сверху, ответы отсортированы по requestId, как их возвращает репозиторий
+        for (long requestId = requests; requestId >= 1; requestId--) {
+            User requester = User.builder().id(requestId + 1).name("requester" + requestId)
+                    .email("requester" + requestId + "@mail.ru").version(0L).build();
+            page.add(ItemRequest.builder().id(requestId).description("Request " + requestId).requester(requester)
+                    .created(created.plusMinutes(requestId)).version(0L).build());
+        }
+        for (long requestId = 1; requestId <= requests; requestId++) {
+            for (int i = 0; i < itemsPerRequest; i++) {
+                answers.add(new View(itemId++, requestId));
+            }
+        }
+
+        UserRepository userRepository = stub(UserRepository.class, Map.of("existsById", true));
+        requestService = new ItemRequestServiceImpl(
+                stub(ItemRequestRepository.class, Map.of("findAllWithoutRequesterId", page)),
+                stub(ItemRepository.class, Map.of("findByRequestIdInOrderByRequestIdAscIdAsc", answers)),
+                userRepository,
+                new UserExistenceCheck(userRepository, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllPaginated() {
+        return requestService.getAllPaginated(USER_ID, 0, requests);
+    }
+
+    private static final class View implements RequestItemView {
+
+        private final Long id;
+        private final Long requestId;
+
+        View(Long id, Long requestId) {
+            this.id = id;
+            this.requestId = requestId;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return "Item " + id;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Description";
+        }
+
+        @Override
+        public Boolean getAvailable() {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public Long getVersion() {
+            return 0L;
+        }
+    }
+}
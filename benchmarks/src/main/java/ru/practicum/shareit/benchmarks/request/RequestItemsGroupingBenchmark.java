@@ -0,0 +1,131 @@
+package ru.practicum.shareit.benchmarks.request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.storage.RequestItemView;
+import ru.practicum.shareit.request.service.RequestItemsGrouping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Группировка ответов на запросы для страницы /requests/all:
+ * RequestItemsGrouping против Collectors.groupingBy на тех же данных.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar RequestItemsGroupingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestItemsGroupingBenchmark {
+
+    private static final int REQUESTS_PER_PAGE = 20;
+
+    @Param({"0", "1", "100"})
+    private int itemsPerRequest;
+
+    private List<Long> requestIds;
+    private List<RequestItemView> items;
+
+    @Setup
+    public void setUp() {
+        requestIds = new ArrayList<>(REQUESTS_PER_PAGE);
+        items = new ArrayList<>(REQUESTS_PER_PAGE * itemsPerRequest);
+        long itemId = 1;
+        for (long requestId = 1; requestId <= REQUESTS_PER_PAGE; requestId++) {
+            requestIds.add(requestId);
+            for (int i = 0; i < itemsPerRequest; i++) {
+                items.add(new View(itemId++, requestId));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<List<ItemDto>> sortedRuns() {
+        Map<Long, List<ItemDto>> grouped = RequestItemsGrouping.groupByRequestId(items);
+        List<List<ItemDto>> result = new ArrayList<>(requestIds.size());
+        for (Long requestId : requestIds) {
+            result.add(grouped.getOrDefault(requestId, List.of()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<List<ItemDto>> streamGroupingBy() {
+        Map<Long, List<ItemDto>> grouped = items.stream()
+                .collect(Collectors.groupingBy(RequestItemView::getRequestId,
+                        Collectors.mapping(RequestItemsGroupingBenchmark::toItemDto, Collectors.toList())));
+        List<List<ItemDto>> result = new ArrayList<>(requestIds.size());
+        for (Long requestId : requestIds) {
+            result.add(grouped.getOrDefault(requestId, List.of()));
+        }
+        return result;
+    }
+
+    private static ItemDto toItemDto(RequestItemView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .version(item.getVersion())
+                .build();
+    }
+
+    private static final class View implements RequestItemView {
+
+        private final Long id;
+        private final Long requestId;
+
+        View(Long id, Long requestId) {
+            this.id = id;
+            this.requestId = requestId;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return "Item " + id;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Description";
+        }
+
+        @Override
+        public Boolean getAvailable() {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public Long getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public Long getVersion() {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.benchmarks.user;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пользователя в начале GET /bookings: загрузка сущности findById (как было),
+ * existsById и UserExistenceCheck (как стало). Метод request повторяет
+ * BookingServiceImpl.getByBookerId с выбранной проверкой. Сервер поднимается без веба на H2 профиля test.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar UserExistenceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserExistenceBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int BOOKINGS_PER_USER = 5;
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"findById", "existsById", "existenceCheck"})
+    private String check;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private BookingRepository bookingRepository;
+    private UserExistenceCheck userExistence;
+    private List<Long> userIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        userExistence = context.getBean(UserExistenceCheck.class);
+
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        Item item = context.getBean(ItemRepository.class).save(Item.builder()
+                .name("item").description("description").available(true).owner(owner).build());
+        userIds = new ArrayList<>(USERS);
+        List<Booking> bookings = new ArrayList<>(USERS * BOOKINGS_PER_USER);
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        for (int i = 0; i < USERS; i++) {
+            User booker = userRepository.save(User.builder().name("user" + i).email("user" + i + "@mail.ru").build());
+            userIds.add(booker.getId());
+            for (int j = 0; j < BOOKINGS_PER_USER; j++) {
+                LocalDateTime bookingStart = start.plusDays(i * BOOKINGS_PER_USER + j);
+                bookings.add(Booking.builder().item(item).booker(booker).status(BookingStatus.APPROVED)
+                        .start(bookingStart).end(bookingStart.plusHours(1)).build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean check() {
+        return exists(nextUserId());
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> request() {
+        Long userId = nextUserId();
+        if (!exists(userId)) {
+            throw new IllegalStateException("Нет пользователя с id: " + userId);
+        }
+        BookingQuery query = BookingQuery.builder()
+                .role(BookingRole.BOOKER)
+                .userId(userId)
+                .state(BookingState.ALL)
+                .now(LocalDateTime.now())
+                .limit(PAGE_SIZE)
+                .build();
+        return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository.findBookings(query));
+    }
+
+    private boolean exists(Long userId) {
+        switch (check) {
+            case "findById":
+                return userRepository.findById(userId).isPresent();
+            case "existsById":
+                return userRepository.existsById(userId);
+            default:
+                return userExistence.exists(userId);
+        }
+    }
+
+    private Long nextUserId() {
+        next = (next + 1) % USERS;
+        return userIds.get(next);
+    }
+}
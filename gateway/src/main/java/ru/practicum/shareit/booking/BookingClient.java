@@ -1,62 +1,66 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransport transport) {
+        super(transport, API_PREFIX);
     }
 
-    public BookingResponseDto save(Long userId, BookingRequestDto requestDto) {
+    public CompletableFuture<BookingResponseDto> save(Long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto, BookingResponseDto.class);
     }
 
-    public BookingResponseDto update(Long userId, Long bookingId, boolean bookingStatus) {
+    public CompletableFuture<BookingResponseDto> update(Long userId, Long bookingId, boolean bookingStatus) {
         Map<String, Object> parameters = Map.of(
                 "approved", bookingStatus
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null, BookingResponseDto.class);
     }
 
-    public BookingResponseDto getByBookingId(Long userId, Long bookingId) {
+    public CompletableFuture<BookingResponseDto> getByBookingId(Long userId, Long bookingId) {
         return get("/" + bookingId, userId, BookingResponseDto.class);
     }
 
-    public List<BookingResponseDto> getByBookerId(Long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters, List.class);
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getByBookerId(Long userId, String state,
+                                                                                     int from, int size,
+                                                                                     @Nullable String after) {
+        return getBookings("?state={state}&from={from}&size={size}", userId, state, from, size, after);
     }
 
-    public List<BookingResponseDto> getByOwnerId(Long ownerId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getByOwnerId(Long ownerId, String state,
+                                                                                    int from, int size,
+                                                                                    @Nullable String after) {
+        return getBookings("/owner?state={state}&from={from}&size={size}", ownerId, state, from, size, after);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getBookings(String path, Long userId,
+                                                                                    String state, int from, int size,
+                                                                                    @Nullable String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters, List.class);
+        ));
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return (CompletableFuture) getWithHeaders(path, userId, parameters, List.class, NEXT_CURSOR_HEADER);
     }
 }
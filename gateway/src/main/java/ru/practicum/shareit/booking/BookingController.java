@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.error.ValidationException;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Validated
@@ -25,30 +27,32 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public BookingResponseDto save(@RequestHeader(USER_ID) Long bookerId,
-                                  @Valid @RequestBody BookingRequestDto requestDto) {
+    public CompletableFuture<BookingResponseDto> save(@RequestHeader(USER_ID) Long bookerId,
+                                                      @Valid @RequestBody BookingRequestDto requestDto) {
         bookingTimeValidation(requestDto);
         return bookingClient.save(bookerId, requestDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingResponseDto update(@RequestHeader(USER_ID) Long ownerId,
-                                     @PathVariable Long bookingId,
-                                     @RequestParam(name = "approved") Boolean bookingStatus) {
+    public CompletableFuture<BookingResponseDto> update(@RequestHeader(USER_ID) Long ownerId,
+                                                        @PathVariable Long bookingId,
+                                                        @RequestParam(name = "approved") Boolean bookingStatus) {
         return bookingClient.update(ownerId, bookingId, bookingStatus);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getByBookingId(@RequestHeader(USER_ID) Long id,
-                                             @PathVariable Long bookingId) {
+    public CompletableFuture<BookingResponseDto> getByBookingId(@RequestHeader(USER_ID) Long id,
+                                                                @PathVariable Long bookingId) {
         return bookingClient.getByBookingId(id, bookingId);
     }
 
     @GetMapping
-    public List<BookingResponseDto> getByBookerId(@RequestHeader(USER_ID) Long bookerId,
-                                                  @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "10") int size,
-                                                  @RequestParam(defaultValue = "ALL") String state) {
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getByBookerId(
+            @RequestHeader(USER_ID) Long bookerId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String after) {
         checkPageableParameters(from, size);
 
         try {
@@ -56,14 +60,16 @@ public class BookingController {
         } catch (RuntimeException e) {
             throw new ValidationException("Unknown state: " + state);
         }
-        return bookingClient.getByBookerId(bookerId, state, from, size);
+        return bookingClient.getByBookerId(bookerId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getByOwnerId(@RequestHeader(USER_ID) Long ownerId,
-                                                 @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "10") int size,
-                                                 @RequestParam(defaultValue = "ALL") String state) {
+    public CompletableFuture<ResponseEntity<List<BookingResponseDto>>> getByOwnerId(
+            @RequestHeader(USER_ID) Long ownerId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String after) {
         checkPageableParameters(from, size);
 
         try {
@@ -71,7 +77,7 @@ public class BookingController {
         } catch (RuntimeException e) {
             throw new ValidationException("Unknown state: " + state);
         }
-        return bookingClient.getByOwnerId(ownerId, state, from, size);
+        return bookingClient.getByOwnerId(ownerId, state, from, size, after);
     }
 
     private void checkPageableParameters(int from, int size) {
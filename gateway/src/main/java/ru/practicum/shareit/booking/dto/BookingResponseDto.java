@@ -21,4 +21,5 @@ public class BookingResponseDto {
     private Item item;
     private User booker;
     private BookingStatus status;
+    private Long version;
 }
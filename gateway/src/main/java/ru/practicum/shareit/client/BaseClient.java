@@ -1,90 +1,117 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final ServerTransport transport;
+
+    private final String apiPrefix;
+
+    public BaseClient(ServerTransport transport, String apiPrefix) {
+        this.transport = transport;
+        this.apiPrefix = apiPrefix;
     }
 
-    protected <E> E get(String path, Class<E> type) {
+    protected <E> CompletableFuture<E> get(String path, Class<E> type) {
         return get(path, null, null, type);
     }
 
-    protected <E> E get(String path, long userId, Class<E> type) {
+    protected <E> CompletableFuture<E> get(String path, long userId, Class<E> type) {
         return get(path, userId, null, type);
     }
 
-    protected <E> E get(String path, Long userId, @Nullable Map<String, Object> parameters,
-                        Class<E> type) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, type);
+    protected <E> CompletableFuture<E> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                           Class<E> type) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, type)
+                .thenApply(ResponseEntity::getBody);
+    }
+
+    protected <E> CompletableFuture<ResponseEntity<E>> getWithHeaders(String path, Long userId,
+                                                                      @Nullable Map<String, Object> parameters,
+                                                                      Class<E> type, String... forwardedHeaders) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, type)
+                .thenApply(response -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    for (String header : forwardedHeaders) {
+                        List<String> values = response.getHeaders().get(header);
+                        if (values != null) {
+                            headers.put(header, values);
+                        }
+                    }
+                    return ResponseEntity.status(response.getStatusCode()).headers(headers).body(response.getBody());
+                });
     }
 
-    protected <T, E> E post(String path, T body, Class<E> type) {
+    protected <T, E> CompletableFuture<E> post(String path, T body, Class<E> type) {
         return post(path, null, null, body, type);
     }
 
-    protected <T, E> E post(String path, long userId, T body, Class<E> type) {
+    protected <T, E> CompletableFuture<E> post(String path, long userId, T body, Class<E> type) {
         return post(path, userId, null, body, type);
     }
 
-    protected <T, E> E post(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
-                            Class<E> type) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, type);
+    protected <T, E> CompletableFuture<E> post(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                               T body, Class<E> type) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, type)
+                .thenApply(ResponseEntity::getBody);
     }
 
-    protected <T, E> E patch(String path, T body, Class<E> type) {
+    protected <T, E> CompletableFuture<E> patch(String path, T body, Class<E> type) {
         return patch(path, null, null, body, type);
     }
 
-    protected <E> E patch(String path, long userId, Class<E> type) {
+    protected <E> CompletableFuture<E> patch(String path, long userId, Class<E> type) {
         return patch(path, userId, null, null, type);
     }
 
-    protected <T, E> E patch(String path, long userId, T body, Class<E> type) {
+    protected <T, E> CompletableFuture<E> patch(String path, long userId, T body, Class<E> type) {
         return patch(path, userId, null, body, type);
     }
 
-    protected <T, E> E patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
-                             Class<E> type) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, type);
+    protected <T, E> CompletableFuture<E> patch(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                T body, Class<E> type) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, type)
+                .thenApply(ResponseEntity::getBody);
     }
 
-    protected void delete(String path) {
-        delete(path, null, null);
+    protected CompletableFuture<Void> delete(String path) {
+        return delete(path, null, null);
     }
 
-    protected void delete(String path, long userId) {
-        delete(path, userId, null);
+    protected CompletableFuture<Void> delete(String path, long userId) {
+        return delete(path, userId, null);
     }
 
-    protected void delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, Void.class);
+    protected CompletableFuture<Void> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, Void.class)
+                .thenApply(ResponseEntity::getBody);
     }
 
-    private <T, E> E makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                        @Nullable Map<String, Object> parameters, @Nullable T body, Class<E> type) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<E> shareitServerResponse;
+    protected void stream(String path, Long userId, @Nullable Map<String, Object> parameters, MediaType accept,
+                          OutputStream out) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(accept));
+        transport.stream(apiPrefix + path, headers, parameters, out);
+    }
 
-        if (parameters != null) {
-            shareitServerResponse = rest.exchange(path, method, requestEntity, type, parameters);
-        } else {
-            shareitServerResponse = rest.exchange(path, method, requestEntity, type);
-        }
-        return shareitServerResponse.getBody();
+    private <T, E> CompletableFuture<ResponseEntity<E>> makeAndSendRequest(HttpMethod method, String path,
+                                                                           Long userId,
+                                                                           @Nullable Map<String, Object> parameters,
+                                                                           @Nullable T body, Class<E> type) {
+        return transport.exchange(method, apiPrefix + path, defaultHeaders(userId), parameters, body, type);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -92,7 +119,7 @@ public class BaseClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
         }
         return headers;
     }
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш GET-ответов поверх другого транспорта. Свежий ответ отдаётся сразу, устаревший
+ * перепроверяется по ETag. Изменяющие запросы через gateway сбрасывают затронутые записи.
+ */
+public class CachingServerTransport implements ServerTransport {
+
+    // Ответы одной области содержат данные других: в карточке вещи есть брони и имена авторов отзывов,
+    // в запросе - вещи, созданные в ответ на него
+    private static final Map<String, Set<String>> DEPENDENT_REGIONS = Map.of(
+            "users", Set.of("items"),
+            "items", Set.of("requests"),
+            "bookings", Set.of("items")
+    );
+
+    private final ServerTransport delegate;
+    private final Cache<CacheKey, CachedResponse> cache;
+    private final List<Pattern> cacheablePaths;
+    private final long freshForNanos;
+    // Ответ, запрошенный до сброса, не должен попасть в кэш после него
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CachingServerTransport(ServerTransport delegate, Cache<CacheKey, CachedResponse> cache,
+                                  ResponseCacheProperties properties) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.cacheablePaths = properties.getPaths().stream()
+                .map(Pattern::compile)
+                .collect(Collectors.toList());
+        this.freshForNanos = properties.getFreshFor().toNanos();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T, E> CompletableFuture<ResponseEntity<E>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, Class<E> type) {
+        String uri = UriComponentsBuilder.fromUriString(path)
+                .buildAndExpand(parameters != null ? parameters : Map.of())
+                .toUriString();
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, headers, parameters, body, type)
+                    .whenComplete((response, e) -> invalidate(uri));
+        }
+        if (!isCacheable(uri)) {
+            return delegate.exchange(method, path, headers, parameters, body, type);
+        }
+
+        CacheKey key = new CacheKey(uri, headers.getFirst(BaseClient.USER_ID_HEADER));
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.isFresh()) {
+            return CompletableFuture.completedFuture((ResponseEntity<E>) cached.getResponse());
+        }
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        long generation = invalidations.get();
+        return delegate.exchange(method, path, headers, parameters, body, type)
+                .thenApply(response -> store(key, cached, response, generation));
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       OutputStream out) throws IOException {
+        delegate.stream(path, headers, parameters, out);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> ResponseEntity<E> store(CacheKey key, @Nullable CachedResponse cached, ResponseEntity<E> response,
+                                        long generation) {
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            if (invalidations.get() == generation) {
+                cache.put(key, new CachedResponse(cached.getResponse(), cached.getEtag(), freshUntil()));
+            }
+            return (ResponseEntity<E>) cached.getResponse();
+        }
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCode() == HttpStatus.OK && etag != null && invalidations.get() == generation) {
+            cache.put(key, new CachedResponse(response, etag, freshUntil()));
+        }
+        return response;
+    }
+
+    private void invalidate(String uri) {
+        invalidations.incrementAndGet();
+        String[] segments = UriComponentsBuilder.fromUriString(uri).build().getPathSegments().toArray(String[]::new);
+        if (segments.length == 0) {
+            return;
+        }
+        String region = "/" + segments[0];
+        // POST /items/1/comment меняет /items/1, а POST /items - неизвестно что в /items
+        String resource = segments.length > 1 && segments[1].chars().allMatch(Character::isDigit)
+                ? region + "/" + segments[1]
+                : region;
+        Set<String> dependent = DEPENDENT_REGIONS.getOrDefault(segments[0], Set.of()).stream()
+                .map(name -> "/" + name)
+                .collect(Collectors.toSet());
+        cache.asMap().keySet().removeIf(key -> startsWithPath(key.getUri(), resource)
+                || dependent.stream().anyMatch(prefix -> startsWithPath(key.getUri(), prefix)));
+    }
+
+    private boolean isCacheable(String uri) {
+        return cacheablePaths.stream().anyMatch(pattern -> pattern.matcher(uri).matches());
+    }
+
+    private long freshUntil() {
+        return System.nanoTime() + freshForNanos;
+    }
+
+    private static boolean startsWithPath(String uri, String prefix) {
+        return uri.equals(prefix) || uri.startsWith(prefix + "/") || uri.startsWith(prefix + "?");
+    }
+
+    @Value
+    public static class CacheKey {
+        String uri;
+        @Nullable
+        String userId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedResponse {
+        private final ResponseEntity<?> response;
+        private final String etag;
+        private final long freshUntilNanos;
+
+        boolean isFresh() {
+            return System.nanoTime() - freshUntilNanos < 0;
+        }
+    }
+}
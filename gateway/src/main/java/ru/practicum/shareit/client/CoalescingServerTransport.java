@@ -0,0 +1,103 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Объединяет одинаковые GET-запросы, идущие к серверу одновременно: первый уходит на сервер,
+ * остальные ждут его ответа. Ответ не запоминается - после завершения следующий запрос снова идёт на сервер.
+ */
+public class CoalescingServerTransport implements ServerTransport {
+
+    private static final String METRIC_NAME = "gateway.coalescing.requests";
+
+    private final ServerTransport delegate;
+    private final ConcurrentMap<FlightKey, CompletableFuture<ResponseEntity<?>>> inFlight = new ConcurrentHashMap<>();
+    // Доля объединённых: coalesced / (upstream + coalesced)
+    private final Counter upstream;
+    private final Counter coalesced;
+
+    public CoalescingServerTransport(ServerTransport delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.upstream = Counter.builder(METRIC_NAME)
+                .description("GET-запросы, отправленные на сервер")
+                .tag("result", "upstream")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder(METRIC_NAME)
+                .description("GET-запросы, дождавшиеся ответа на такой же запрос")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, Map::size)
+                .description("Запросы к серверу, которых сейчас ждут")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T, E> CompletableFuture<ResponseEntity<E>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, Class<E> type) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, headers, parameters, body, type);
+        }
+        String uri = UriComponentsBuilder.fromUriString(path)
+                .buildAndExpand(parameters != null ? parameters : Map.of())
+                .toUriString();
+        // If-None-Match в ключе: ответ 304 годится только тому, кто присылал тот же ETag
+        FlightKey key = new FlightKey(uri, headers.getFirst(BaseClient.USER_ID_HEADER), headers.getIfNoneMatch(), type);
+        CompletableFuture<ResponseEntity<?>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<?>> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.thenApply(response -> (ResponseEntity<E>) response);
+        }
+        upstream.increment();
+        // Блокирующий транспорт завершает future прямо в exchange, поэтому запись убирается
+        // до передачи ответа ожидающим, а не внутри вычисления ConcurrentHashMap
+        CompletableFuture<ResponseEntity<E>> response;
+        try {
+            response = delegate.exchange(method, path, headers, parameters, body, type);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, e) -> {
+            inFlight.remove(key, flight);
+            if (e != null) {
+                flight.completeExceptionally(e);
+            } else {
+                flight.complete(result);
+            }
+        });
+        return flight.thenApply(result -> (ResponseEntity<E>) result);
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       OutputStream out) throws IOException {
+        delegate.stream(path, headers, parameters, out);
+    }
+
+    @Value
+    private static class FlightKey {
+        String uri;
+        @Nullable
+        String userId;
+        List<String> ifNoneMatch;
+        Class<?> type;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки кэша GET-ответов сервера в gateway.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    // Столько времени ответ отдаётся без обращения к серверу
+    private Duration freshFor = Duration.ofSeconds(1);
+    // До удаления устаревший ответ перепроверяется на сервере через If-None-Match
+    private Duration ttl = Duration.ofMinutes(5);
+    // Регулярные выражения для путей (вместе с query), ответы на которые кэшируются
+    private List<String> paths = List.of("/items/\\d+", "/users/\\d+", "/requests/\\d+");
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Блокирующий режим: запрос выполняется в потоке сервлета, future возвращается уже завершённым.
+ */
+@RequiredArgsConstructor
+public class RestTemplateServerTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+
+    @Override
+    public <T, E> CompletableFuture<ResponseEntity<E>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, Class<E> type) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<E> shareitServerResponse;
+
+        if (parameters != null) {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, type, parameters);
+        } else {
+            shareitServerResponse = rest.exchange(path, method, requestEntity, type);
+        }
+        return CompletableFuture.completedFuture(shareitServerResponse);
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       OutputStream out) throws IOException {
+        rest.execute(path, HttpMethod.GET,
+                request -> request.getHeaders().addAll(headers),
+                response -> StreamUtils.copy(response.getBody(), out),
+                parameters != null ? parameters : Map.of());
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий транспорт для всех клиентов BaseClient. Раньше каждый клиент создавал
+ * свою фабрику со стандартными лимитами (2 соединения на маршрут) и без таймаутов.
+ */
+@Configuration
+@EnableConfigurationProperties({ServerClientProperties.class, ResponseCacheProperties.class})
+public class ServerClientConfig {
+
+    private static final String MODE_PROPERTY = "shareit-server.client.mode";
+
+    // Клиенты получают цепочку: трассировка -> кэш ответов -> объединение одинаковых запросов -> сервер
+    @Bean
+    @Primary
+    public ServerTransport serverTransport(@Qualifier("directServerTransport") ServerTransport directServerTransport,
+                                           @Value("${shareit-server.coalescing.enabled:true}") boolean coalescing,
+                                           ResponseCacheProperties cacheProperties,
+                                           MeterRegistry meterRegistry,
+                                           OpenTelemetry openTelemetry,
+                                           Tracer tracer) {
+        ServerTransport transport = directServerTransport;
+        if (coalescing) {
+            // Доля объединённых: /actuator/metrics/gateway.coalescing.requests?tag=result:coalesced
+            transport = new CoalescingServerTransport(transport, meterRegistry);
+        }
+        if (cacheProperties.isEnabled()) {
+            transport = cachingServerTransport(transport, cacheProperties, meterRegistry);
+        }
+        return new TracingServerTransport(transport, openTelemetry, tracer);
+    }
+
+    private static ServerTransport cachingServerTransport(ServerTransport delegate, ResponseCacheProperties properties,
+                                                          MeterRegistry meterRegistry) {
+        Cache<CachingServerTransport.CacheKey, CachingServerTransport.CachedResponse> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        // Попадания и промахи: /actuator/metrics/cache.gets?tag=cache:gateway.responses
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+        return new CachingServerTransport(delegate, cache, properties);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "blocking", matchIfMissing = true)
+    static class BlockingTransportConfig {
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager serverConnectionManager(ServerClientProperties properties) {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(properties.getMaxTotal());
+            connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+            connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+            return connectionManager;
+        }
+
+        @Bean
+        public HttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                           ServerClientProperties properties) {
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                    .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                    .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                    .build();
+            return HttpClients.custom()
+                    .setConnectionManager(serverConnectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAlive().toMillis()))
+                    .evictExpiredConnections()
+                    .evictIdleConnections(properties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory serverRequestFactory(HttpClient serverHttpClient) {
+            HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+            // Тело пишется в соединение по мере сериализации: пачка пользователей передается серверу потоком
+            requestFactory.setBufferRequestBody(false);
+            return requestFactory;
+        }
+
+        // Занятые, свободные и ожидающие соединения: /actuator/metrics/httpcomponents.httpclient.pool.*
+        @Bean
+        public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, "shareit-server");
+        }
+
+        @Bean
+        public ServerTransport directServerTransport(@Value("${shareit-server.url}") String serverUrl,
+                                               RestTemplateBuilder builder,
+                                               ClientHttpRequestFactory serverRequestFactory) {
+            return new RestTemplateServerTransport(
+                    builder
+                            .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                            .requestFactory(() -> serverRequestFactory)
+                            .build()
+            );
+        }
+
+        private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMillis) {
+            return (response, context) -> {
+                long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return keepAlive > 0 ? keepAlive : defaultKeepAliveMillis;
+            };
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "reactive")
+    static class ReactiveTransportConfig {
+
+        // Метрики пула: /actuator/metrics/reactor.netty.connection.provider.*
+        @Bean(destroyMethod = "dispose")
+        public ConnectionProvider serverConnectionProvider(ServerClientProperties properties) {
+            return ConnectionProvider.builder("shareit-server")
+                    .maxConnections(properties.getMaxTotal())
+                    .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                    .pendingAcquireMaxCount(properties.getMaxPendingAcquires())
+                    .maxIdleTime(properties.getKeepAlive())
+                    .evictInBackground(properties.getIdleEviction())
+                    .metrics(true)
+                    .build();
+        }
+
+        @Bean
+        public ServerTransport directServerTransport(@Value("${shareit-server.url}") String serverUrl,
+                                               WebClient.Builder builder,
+                                               ConnectionProvider serverConnectionProvider,
+                                               ServerClientProperties properties) {
+            reactor.netty.http.client.HttpClient httpClient = reactor.netty.http.client.HttpClient
+                    .create(serverConnectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getReadTimeout());
+            return new WebClientServerTransport(
+                    builder
+                            .baseUrl(serverUrl)
+                            .clientConnector(new ReactorClientHttpConnector(httpClient))
+                            .build()
+            );
+        }
+    }
+}
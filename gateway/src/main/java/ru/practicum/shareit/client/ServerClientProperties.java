@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула HTTP-соединений gateway -> server. Имена общие для режимов blocking и reactive.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+
+    // Все клиенты ходят на один хост, поэтому лимит на маршрут равен общему
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    // Сколько ждать свободное соединение из пула
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    // Если сервер не прислал Keep-Alive, соединение считается живым столько времени
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleEviction = Duration.ofSeconds(60);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    // Только для reactive: длина очереди запросов, ждущих соединение
+    private int maxPendingAcquires = 1000;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Способ доставки запроса до сервера. Реализация выбирается свойством shareit-server.client.mode.
+ */
+public interface ServerTransport {
+
+    <T, E> CompletableFuture<ResponseEntity<E>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                         @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                         Class<E> type);
+
+    /**
+     * GET с копированием тела ответа в out по мере получения, без сборки в памяти. Блокирует
+     * вызывающий поток до конца ответа. Такие ответы не кэшируются и не объединяются.
+     */
+    void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, OutputStream out)
+            throws IOException;
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.client;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Span CLIENT на запрос к серверу и заголовок traceparent в нем. Стоит первым в цепочке транспортов,
+ * поэтому ответы из кэша и объединенные запросы тоже видны в трассе, а span длится до завершения
+ * CompletableFuture. Для объединенных запросов сервер продолжает трассу только первого из них.
+ */
+public class TracingServerTransport implements ServerTransport {
+
+    private static final AttributeKey<String> HTTP_METHOD = AttributeKey.stringKey("http.method");
+    private static final AttributeKey<String> HTTP_URL = AttributeKey.stringKey("http.url");
+    private static final AttributeKey<Long> HTTP_STATUS_CODE = AttributeKey.longKey("http.status_code");
+    private static final TextMapSetter<HttpHeaders> HEADERS = (headers, key, value) -> headers.set(key, value);
+
+    private final ServerTransport delegate;
+    private final OpenTelemetry openTelemetry;
+    private final Tracer tracer;
+
+    public TracingServerTransport(ServerTransport delegate, OpenTelemetry openTelemetry, Tracer tracer) {
+        this.delegate = delegate;
+        this.openTelemetry = openTelemetry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public <T, E> CompletableFuture<ResponseEntity<E>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, Class<E> type) {
+        Span span = start(method.name(), path, headers);
+        CompletableFuture<ResponseEntity<E>> response;
+        try (Scope ignored = span.makeCurrent()) {
+            response = delegate.exchange(method, path, headers, parameters, body, type);
+        } catch (RuntimeException e) {
+            end(span, null, e);
+            throw e;
+        }
+        return response.whenComplete((result, e) -> end(span, result, e));
+    }
+
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       OutputStream out) throws IOException {
+        Span span = start(HttpMethod.GET.name(), path, headers);
+        try (Scope ignored = span.makeCurrent()) {
+            delegate.stream(path, headers, parameters, out);
+        } catch (IOException | RuntimeException e) {
+            end(span, null, e);
+            throw e;
+        }
+        end(span, null, null);
+    }
+
+    // Имя по первому сегменту пути (GET /users): в пути есть id, по нему спаны не группируются
+    private Span start(String method, String path, HttpHeaders headers) {
+        Span span = tracer.spanBuilder(method + " " + resource(path))
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute(HTTP_METHOD, method)
+                .setAttribute(HTTP_URL, path)
+                .startSpan();
+        openTelemetry.getPropagators().getTextMapPropagator()
+                .inject(Context.current().with(span), headers, HEADERS);
+        return span;
+    }
+
+    private static void end(Span span, @Nullable ResponseEntity<?> response, @Nullable Throwable error) {
+        if (response != null) {
+            span.setAttribute(HTTP_STATUS_CODE, (long) response.getStatusCodeValue());
+            if (response.getStatusCode().is5xxServerError()) {
+                span.setStatus(StatusCode.ERROR);
+            }
+        }
+        if (error != null) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    private static String resource(String path) {
+        int end = path.length();
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '?') {
+                end = i;
+                break;
+            }
+        }
+        return path.substring(0, end);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Неблокирующий режим: поток сервлета освобождается сразу, ответ дописывается из event loop Netty.
+ */
+@RequiredArgsConstructor
+public class WebClientServerTransport implements ServerTransport {
+
+    private static final int UPLOAD_BUFFER_SIZE = 8192;
+
+    private final WebClient webClient;
+
+    @Override
+    public <T, E> CompletableFuture<ResponseEntity<E>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, Class<E> type) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec;
+        if (body instanceof Resource) {
+            // Тело-поток (запрос клиента gateway) читается вне event loop: клиент может присылать его медленно
+            spec = request.body(DataBufferUtils.read((Resource) body, DefaultDataBufferFactory.sharedInstance,
+                    UPLOAD_BUFFER_SIZE).subscribeOn(Schedulers.boundedElastic()), DataBuffer.class);
+        } else {
+            spec = body != null ? request.bodyValue(body) : request;
+        }
+        return spec.retrieve()
+                .toEntity(type)
+                .toFuture();
+    }
+
+    // Буферы забираются в вызывающем потоке: медленный клиент не должен занимать event loop
+    @Override
+    public void stream(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                       OutputStream out) throws IOException {
+        try (Stream<DataBuffer> buffers = webClient.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .toStream()) {
+            for (DataBuffer buffer : (Iterable<DataBuffer>) buffers::iterator) {
+                try (InputStream in = buffer.asInputStream(true)) {
+                    in.transferTo(out);
+                }
+            }
+        }
+        out.flush();
+    }
+}
@@ -9,10 +9,12 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import ru.practicum.shareit.error.ErrorResponse;
 import ru.practicum.shareit.error.ValidationException;
 
 import javax.validation.ConstraintViolationException;
+import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @RestControllerAdvice
@@ -52,6 +54,14 @@ public class ErrorHandler {
         return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsString());
     }
 
+    @ExceptionHandler
+    public ResponseEntity<String> handleWebClientResponseException(WebClientResponseException e) {
+        // Сервер не указывает charset в Content-Type, и WebClient в этом случае подставляет ISO-8859-1
+        String body = new String(e.getResponseBodyAsByteArray(), StandardCharsets.UTF_8);
+        log.info(body);
+        return ResponseEntity.status(e.getRawStatusCode()).body(body);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
@@ -1,62 +1,62 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.item.dto.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerTransport transport) {
+        super(transport, API_PREFIX);
     }
 
-    public ItemDto add(Long userId, ItemDto itemDto) {
+    public CompletableFuture<ItemDto> add(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto, ItemDto.class);
     }
 
-    public ItemDto update(Long userId, Long id, ItemDto itemDto) {
+    // Long[], а не List.class: из сырого списка id пришли бы как Integer
+    public CompletableFuture<List<Long>> addBatch(Long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, null, itemDtos, Long[].class)
+                .thenApply(Arrays::asList);
+    }
+
+    public CompletableFuture<ItemDto> update(Long userId, Long id, ItemDto itemDto) {
         return patch("/" + id, userId, itemDto, ItemDto.class);
     }
 
-    public ItemDto getById(Long userId, Long id) {
+    public CompletableFuture<ItemDto> getById(Long userId, Long id) {
         return get("/" + id, userId, ItemDto.class);
     }
 
-    public List<ItemDto> getByUser(Long userId, int from, int size) {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompletableFuture<List<ItemDto>> getByUser(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters, List.class);
+        return (CompletableFuture) get("?from={from}&size={size}", userId, parameters, List.class);
     }
 
-    public List<ItemDto> getBySearch(Long userId, String text, int from, int size) {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompletableFuture<List<ItemDto>> getBySearch(Long userId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters, List.class);
+        return (CompletableFuture) get("/search?text={text}&from={from}&size={size}", userId, parameters, List.class);
     }
 
-    public CommentDto saveComment(long userId, CommentDto commentDto, long itemId) {
+    public CompletableFuture<CommentDto> saveComment(long userId, CommentDto commentDto, long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto, CommentDto.class);
     }
 }
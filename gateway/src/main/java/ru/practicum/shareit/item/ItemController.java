@@ -8,9 +8,11 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Validated
 @RestController
@@ -22,46 +24,53 @@ public class ItemController {
     public static final String USER_ID = "X-Sharer-User-Id";
 
     @PostMapping
-    public ItemDto add(@RequestHeader(USER_ID) Long id,
-                       @Validated @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ItemDto> add(@RequestHeader(USER_ID) Long id,
+                                          @Validated @RequestBody ItemDto itemDto) {
         return itemClient.add(id, itemDto);
     }
 
+    // Весь массив проверяется до отправки на сервер: одна некорректная вещь отклоняет пакет целиком
+    @PostMapping("/batch")
+    public CompletableFuture<List<Long>> addBatch(@RequestHeader(USER_ID) Long id,
+                                                  @NotEmpty @RequestBody List<@Valid ItemDto> itemDtos) {
+        return itemClient.addBatch(id, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
-    public ItemDto update(@RequestHeader(USER_ID) Long id,
-                          @PathVariable Long itemId,
-                          @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ItemDto> update(@RequestHeader(USER_ID) Long id,
+                                             @PathVariable Long itemId,
+                                             @RequestBody ItemDto itemDto) {
         return itemClient.update(id, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getById(@RequestHeader(USER_ID) Long id,
-                                      @PathVariable Long itemId) {
+    public CompletableFuture<ItemDto> getById(@RequestHeader(USER_ID) Long id,
+                                              @PathVariable Long itemId) {
         return itemClient.getById(id, itemId);
     }
 
     @GetMapping
-    public List<ItemDto> getByUser(@RequestParam(defaultValue = "0") int from,
-                                              @RequestParam(defaultValue = "10") int size,
-                                              @RequestHeader(USER_ID) Long id) {
+    public CompletableFuture<List<ItemDto>> getByUser(@RequestParam(defaultValue = "0") int from,
+                                                      @RequestParam(defaultValue = "10") int size,
+                                                      @RequestHeader(USER_ID) Long id) {
         checkPageableParameters(from, size);
         return itemClient.getByUser(id, from, size);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getBySearch(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @RequestParam(defaultValue = "") String text,
-                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                     @Positive @RequestParam(defaultValue = "10") int size) {
+    public CompletableFuture<List<ItemDto>> getBySearch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(defaultValue = "") String text,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                        @Positive @RequestParam(defaultValue = "10") int size) {
 
         checkPageableParameters(from, size);
         return itemClient.getBySearch(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public CommentDto saveComment(@PathVariable Long itemId,
-                                          @RequestHeader(USER_ID) Long userId,
-                                          @Valid @RequestBody CommentDto commentDto) {
+    public CompletableFuture<CommentDto> saveComment(@PathVariable Long itemId,
+                                                     @RequestHeader(USER_ID) Long userId,
+                                                     @Valid @RequestBody CommentDto commentDto) {
         return itemClient.saveComment(userId, commentDto, itemId);
     }
 
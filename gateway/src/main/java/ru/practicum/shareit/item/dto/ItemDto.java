@@ -30,5 +30,6 @@ public class ItemDto {
     private BookingItemDto nextBooking;
     private List<CommentDto> comments;
     private Long requestId;
+    private Long version;
 
 }
\ No newline at end of file
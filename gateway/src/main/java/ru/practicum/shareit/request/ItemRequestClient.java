@@ -1,48 +1,50 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ServerTransport transport) {
+        super(transport, API_PREFIX);
     }
 
-    public ItemRequestDto add(Long userId, ItemRequestDto requestDto) {
+    public CompletableFuture<ItemRequestDto> add(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto, ItemRequestDto.class);
     }
 
-    public List<ItemRequestDto> getByUserId(Long userId) {
-        return get("", userId, List.class);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompletableFuture<List<ItemRequestDto>> getByUserId(Long userId) {
+        return (CompletableFuture) get("", userId, List.class);
     }
 
-    public List<ItemRequestDto> getAllPaginated(Long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompletableFuture<ResponseEntity<List<ItemRequestDto>>> getAllPaginated(Long userId, int from, int size,
+                                                                                   @Nullable String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all", userId, parameters, List.class);
+        ));
+        String path = "/all?from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return (CompletableFuture) getWithHeaders(path, userId, parameters, List.class, NEXT_CURSOR_HEADER);
     }
 
-    public ItemRequestDto getByRequestId(Long userId, Long id) {
+    public CompletableFuture<ItemRequestDto> getByRequestId(Long userId, Long id) {
         return get("/" + id, userId, ItemRequestDto.class);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.error.ValidationException;
@@ -10,6 +11,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Validated
 @RestController
@@ -22,28 +24,30 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @PostMapping
-    public ItemRequestDto add(@RequestHeader(USER_ID) Long requesterId,
-                              @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ItemRequestDto> add(@RequestHeader(USER_ID) Long requesterId,
+                                                 @Valid @RequestBody ItemRequestDto itemRequestDto) {
         return requestClient.add(requesterId, itemRequestDto);
     }
 
     @GetMapping("/{id}")
-    public ItemRequestDto getByRequestId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long id) {
+    public CompletableFuture<ItemRequestDto> getByRequestId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @PathVariable Long id) {
         return requestClient.getByRequestId(userId, id);
     }
 
     @GetMapping
-    public List<ItemRequestDto> getByUserId(@RequestHeader(USER_ID) Long userId) {
+    public CompletableFuture<List<ItemRequestDto>> getByUserId(@RequestHeader(USER_ID) Long userId) {
         return requestClient.getByUserId(userId);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllPaginated(@RequestHeader(USER_ID) Long userId,
-                                        @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                        @Positive @RequestParam(defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<List<ItemRequestDto>>> getAllPaginated(
+            @RequestHeader(USER_ID) Long userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+            @Positive @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
         checkPageableParameters(from, size);
-        return requestClient.getAllPaginated(userId, from, size);
+        return requestClient.getAllPaginated(userId, from, size, after);
     }
 
     private void checkPageableParameters(int from, int size) {
@@ -18,4 +18,5 @@ public class ItemRequestDto {
     private String description;
     private LocalDateTime created;
     private List<ItemDto> items;
+    private Long version;
 }
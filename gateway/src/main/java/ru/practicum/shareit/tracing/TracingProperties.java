@@ -0,0 +1,24 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Те же свойства shareit.tracing, что и у сервера, отличается только имя сервиса.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.tracing")
+public class TracingProperties {
+
+    private String serviceName = "shareit-gateway";
+    private String exporter;
+    private String endpoint;
+    // Доля трасс, начатых здесь. Для входящих с traceparent решение принимает вызывающая сторона
+    private double samplingRatio = 1.0;
+
+    public boolean isOtlpEnabled() {
+        return exporter == null ? endpoint != null : "otlp".equals(exporter);
+    }
+}
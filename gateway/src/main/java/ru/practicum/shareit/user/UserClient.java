@@ -1,48 +1,70 @@
 package ru.practicum.shareit.user;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
-    @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerTransport transport) {
+        super(transport, API_PREFIX);
     }
 
-    public UserDto add(UserDto userDto) {
+    public CompletableFuture<UserDto> add(UserDto userDto) {
         return post("", userDto, UserDto.class);
     }
 
-    public List<UserDto> getAll() {
-        return get("", List.class);
+    // Тело запроса клиента уходит на сервер потоком, gateway его не буферизует
+    public CompletableFuture<UserBatchResultDto> addBatch(InputStream usersJson) {
+        return post("/batch", new InputStreamResource(usersJson), UserBatchResultDto.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompletableFuture<List<UserDto>> getAll(int from) {
+        return (CompletableFuture) get("?from={from}", null, Map.of("from", from), List.class);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompletableFuture<List<UserDto>> getAll(int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return (CompletableFuture) get("?from={from}&size={size}", null, parameters, List.class);
+    }
+
+    public void export(int from, Integer size, OutputStream out) throws IOException {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        stream(size != null ? "?from={from}&size={size}" : "?from={from}", null, parameters,
+                MediaType.APPLICATION_NDJSON, out);
     }
 
-    public UserDto getById(Long id) {
+    public CompletableFuture<UserDto> getById(Long id) {
         return get("/" + id, UserDto.class);
     }
 
-    public UserDto update(Long id, UserDto userDto) {
+    public CompletableFuture<UserDto> update(Long id, UserDto userDto) {
         return patch("/" + id, userDto, UserDto.class);
     }
 
-    public void delete(Long id) {
-        delete("/" + id);
+    public CompletableFuture<Void> delete(Long id) {
+        return delete("/" + id);
     }
 }
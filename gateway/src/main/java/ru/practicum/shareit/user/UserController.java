@@ -1,13 +1,23 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+@Validated
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -15,28 +25,44 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public UserDto add(@Valid @RequestBody UserDto userDto) {
+    public CompletableFuture<UserDto> add(@Valid @RequestBody UserDto userDto) {
         return userClient.add(userDto);
     }
 
+    // Тело не разбирается и не собирается в памяти: сервер читает массив потоком и сам проверяет каждую строку
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<UserBatchResultDto> addBatch(InputStream usersJson) {
+        return userClient.addBatch(usersJson);
+    }
+
     @GetMapping
-    public List<UserDto> getAll() {  //    получение списка всех пользователей.
-        return userClient.getAll();
+    public CompletableFuture<List<UserDto>> getAll(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                   @Positive @RequestParam(required = false) Integer size) {
+        return size != null ? userClient.getAll(from, size) : userClient.getAll(from);
+    }
+
+    // Выгрузка NDJSON передается клиенту по мере прихода от сервера, gateway её не буферизует
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                        @Positive @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> userClient.export(from, size, out));
     }
 
     @GetMapping("/{id}")
-    public UserDto getById(@PathVariable Long id) {
+    public CompletableFuture<UserDto> getById(@PathVariable Long id) {
         return userClient.getById(id);
     }
 
     @PatchMapping("/{id}")
-    public UserDto update(@PathVariable Long id, @NotNull @RequestBody UserDto userDto) {
+    public CompletableFuture<UserDto> update(@PathVariable Long id, @NotNull @RequestBody UserDto userDto) {
         return userClient.update(id, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable Long id) {
-        userClient.delete(id);
+    public CompletableFuture<Void> delete(@PathVariable Long id) {
+        return userClient.delete(id);
     }
 
 
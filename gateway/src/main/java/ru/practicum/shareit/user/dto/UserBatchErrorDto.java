@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchErrorDto {
+    // Номер элемента во входном массиве, с нуля
+    private int index;
+    private String email;
+    private String message;
+}
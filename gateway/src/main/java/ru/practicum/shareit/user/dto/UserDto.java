@@ -19,4 +19,5 @@ public class UserDto {
     @NotBlank
     @Email
     private String email;
+    private Long version;
 }
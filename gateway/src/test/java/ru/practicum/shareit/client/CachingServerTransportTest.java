@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingServerTransportTest {
+
+    private final ServerTransport delegate = mock(ServerTransport.class);
+
+    private final UserDto user = UserDto.builder().id(1L).name("user").email("user@mail.ru").build();
+
+    @Test
+    void testFreshResponseIsServedWithoutServer() {
+        CachingServerTransport transport = transport(Duration.ofMinutes(1));
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/users/1"), any(), isNull(), isNull(), eq(UserDto.class)))
+                .thenReturn(ok(user, "\"v1\""));
+
+        getUser(transport, 1L);
+        ResponseEntity<UserDto> response = getUser(transport, 1L);
+
+        assertThat(response.getBody()).isEqualTo(user);
+        verify(delegate, times(1)).exchange(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testStaleResponseIsRevalidatedWithIfNoneMatch() {
+        CachingServerTransport transport = transport(Duration.ZERO);
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/users/1"), any(), isNull(), isNull(), eq(UserDto.class)))
+                .thenReturn(ok(user, "\"v1\""))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+
+        getUser(transport, 1L);
+        ResponseEntity<UserDto> response = getUser(transport, 1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(user);
+        verify(delegate).exchange(eq(HttpMethod.GET), eq("/users/1"),
+                argThat(headers -> headers.getIfNoneMatch().equals(List.of("\"v1\""))),
+                isNull(), isNull(), eq(UserDto.class));
+    }
+
+    @Test
+    void testResponsesAreCachedPerUser() {
+        CachingServerTransport transport = transport(Duration.ofMinutes(1));
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/users/1"), any(), isNull(), isNull(), eq(UserDto.class)))
+                .thenReturn(ok(user, "\"v1\""));
+
+        getUser(transport, 1L);
+        getUser(transport, 2L);
+
+        verify(delegate, times(2)).exchange(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testWriteInvalidatesResourceAndDependentRegions() {
+        CachingServerTransport transport = transport(Duration.ofMinutes(1));
+        ItemDto item = ItemDto.builder().id(5L).name("item").build();
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/users/1"), any(), isNull(), isNull(), eq(UserDto.class)))
+                .thenReturn(ok(user, "\"v1\""));
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/items/5"), any(), isNull(), isNull(), eq(ItemDto.class)))
+                .thenReturn(ok(item, "\"i1\""));
+        when(delegate.exchange(eq(HttpMethod.PATCH), eq("/users/1"), any(), isNull(), any(), eq(UserDto.class)))
+                .thenReturn(ok(user, null));
+
+        getUser(transport, 1L);
+        transport.exchange(HttpMethod.GET, "/items/5", headers(1L), null, null, ItemDto.class).join();
+        transport.exchange(HttpMethod.PATCH, "/users/1", headers(1L), null, user, UserDto.class).join();
+        getUser(transport, 1L);
+        transport.exchange(HttpMethod.GET, "/items/5", headers(1L), null, null, ItemDto.class).join();
+
+        verify(delegate, times(2))
+                .exchange(eq(HttpMethod.GET), eq("/users/1"), any(), isNull(), isNull(), eq(UserDto.class));
+        verify(delegate, times(2))
+                .exchange(eq(HttpMethod.GET), eq("/items/5"), any(), isNull(), isNull(), eq(ItemDto.class));
+    }
+
+    @Test
+    void testResponseWithoutEtagIsNotCached() {
+        CachingServerTransport transport = transport(Duration.ofMinutes(1));
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/users/1"), any(), isNull(), isNull(), eq(UserDto.class)))
+                .thenReturn(ok(user, null));
+
+        getUser(transport, 1L);
+        getUser(transport, 1L);
+
+        verify(delegate, times(2)).exchange(any(), any(), any(), any(), any(), any());
+    }
+
+    private CachingServerTransport transport(Duration freshFor) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setFreshFor(freshFor);
+        return new CachingServerTransport(delegate, Caffeine.newBuilder().build(), properties);
+    }
+
+    private ResponseEntity<UserDto> getUser(CachingServerTransport transport, long userId) {
+        return transport.exchange(HttpMethod.GET, "/users/1", headers(userId), null, null, UserDto.class).join();
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(BaseClient.USER_ID_HEADER, String.valueOf(userId));
+        return headers;
+    }
+
+    private static <E> CompletableFuture<ResponseEntity<E>> ok(E body, String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return CompletableFuture.completedFuture(builder.body(body));
+    }
+}
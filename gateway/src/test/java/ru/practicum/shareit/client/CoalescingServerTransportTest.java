@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CoalescingServerTransportTest {
+
+    private final ServerTransport delegate = mock(ServerTransport.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CoalescingServerTransport transport = new CoalescingServerTransport(delegate, meterRegistry);
+
+    private final ItemDto item = ItemDto.builder().id(5L).name("item").build();
+
+    @Test
+    void testConcurrentIdenticalGetsShareOneServerCall() {
+        CompletableFuture<ResponseEntity<ItemDto>> upstream = new CompletableFuture<>();
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/items/5"), any(), isNull(), isNull(), eq(ItemDto.class)))
+                .thenReturn(upstream);
+
+        CompletableFuture<ResponseEntity<ItemDto>> first = getItem(1L);
+        CompletableFuture<ResponseEntity<ItemDto>> second = getItem(1L);
+        upstream.complete(ResponseEntity.ok(item));
+
+        assertThat(first.join().getBody()).isEqualTo(item);
+        assertThat(second.join().getBody()).isEqualTo(item);
+        verify(delegate, times(1)).exchange(any(), any(), any(), any(), any(), any());
+        assertThat(count("upstream")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void testCompletedResponseIsNotReused() {
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/items/5"), any(), isNull(), isNull(), eq(ItemDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(item)));
+
+        getItem(1L).join();
+        getItem(1L).join();
+
+        verify(delegate, times(2)).exchange(any(), any(), any(), any(), any(), any());
+        assertThat(count("coalesced")).isZero();
+    }
+
+    @Test
+    void testRequestsOfDifferentUsersAreNotCoalesced() {
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/items/5"), any(), isNull(), isNull(), eq(ItemDto.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        getItem(1L);
+        getItem(2L);
+
+        verify(delegate, times(2)).exchange(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testRequestsWithDifferentEtagsAreNotCoalesced() {
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/items/5"), any(), isNull(), isNull(), eq(ItemDto.class)))
+                .thenReturn(new CompletableFuture<>());
+        HttpHeaders revalidation = headers(1L);
+        revalidation.setIfNoneMatch("\"v1\"");
+
+        getItem(1L);
+        transport.exchange(HttpMethod.GET, "/items/5", revalidation, null, null, ItemDto.class);
+
+        verify(delegate, times(2)).exchange(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testWritesAreNotCoalesced() {
+        when(delegate.exchange(eq(HttpMethod.PATCH), eq("/items/5"), any(), isNull(), any(), eq(ItemDto.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        transport.exchange(HttpMethod.PATCH, "/items/5", headers(1L), null, item, ItemDto.class);
+        transport.exchange(HttpMethod.PATCH, "/items/5", headers(1L), null, item, ItemDto.class);
+
+        verify(delegate, times(2)).exchange(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testErrorIsPassedToAllWaitingRequests() {
+        CompletableFuture<ResponseEntity<ItemDto>> upstream = new CompletableFuture<>();
+        when(delegate.exchange(eq(HttpMethod.GET), eq("/items/5"), any(), isNull(), isNull(), eq(ItemDto.class)))
+                .thenReturn(upstream)
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(item)));
+
+        CompletableFuture<ResponseEntity<ItemDto>> first = getItem(1L);
+        CompletableFuture<ResponseEntity<ItemDto>> second = getItem(1L);
+        upstream.completeExceptionally(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+        assertThatThrownBy(first::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(HttpClientErrorException.class);
+        assertThatThrownBy(second::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(HttpClientErrorException.class);
+        assertThat(getItem(1L).join().getBody()).isEqualTo(item);
+    }
+
+    private CompletableFuture<ResponseEntity<ItemDto>> getItem(long userId) {
+        return transport.exchange(HttpMethod.GET, "/items/5", headers(userId), null, null, ItemDto.class);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.coalescing.requests").tag("result", result).counter().count();
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(BaseClient.USER_ID_HEADER, String.valueOf(userId));
+        return headers;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Оба транспорта копируют ответ сервера-заглушки, отданный частями, байт в байт и передают Accept,
+ * а тело-поток отправляют частями, не собирая его в памяти.
+ */
+class StreamingServerTransportTest {
+
+    private static final String BODY = IntStream.range(0, 10_000)
+            .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"user" + i + "\",\"email\":\"user" + i + "@mail.ru\"}\n")
+            .collect(Collectors.joining());
+
+    private static final AtomicReference<String> receivedUri = new AtomicReference<>();
+    private static final AtomicReference<String> receivedAccept = new AtomicReference<>();
+    private static final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private static final AtomicReference<String> receivedEncoding = new AtomicReference<>();
+    private static HttpServer stub;
+    private static String url;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stub.createContext("/users", exchange -> {
+            receivedUri.set(exchange.getRequestURI().toString());
+            receivedAccept.set(exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT));
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE);
+            // Длина 0 - ответ частями (chunked)
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String line : BODY.split("(?<=\n)")) {
+                    out.write(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        });
+        stub.createContext("/users/batch", exchange -> {
+            receivedEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = "{\"created\":3,\"errors\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+        url = "http://localhost:" + stub.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    static Stream<ServerTransport> transports() {
+        return Stream.of(
+                new RestTemplateServerTransport(new RestTemplateBuilder().rootUri(url)
+                        .requestFactory(StreamingServerTransportTest::unbufferedRequestFactory)
+                        .build()),
+                new WebClientServerTransport(WebClient.create(url)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("transports")
+    void testStreamCopiesWholeResponseBody(ServerTransport transport) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transport.stream("/users?from={from}", headers, Map.of("from", 0), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(receivedUri.get()).isEqualTo("/users?from=0");
+        assertThat(receivedAccept.get()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    @ParameterizedTest
+    @MethodSource("transports")
+    void testExchangeSendsResourceBodyInChunks(ServerTransport transport) {
+        String users = "[{\"name\":\"a\",\"email\":\"a@a.ru\"},{\"name\":\"b\",\"email\":\"b@b.ru\"}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        UserBatchResultDto result = transport.exchange(HttpMethod.POST, "/users/batch", headers, null,
+                new InputStreamResource(new ByteArrayInputStream(users.getBytes(StandardCharsets.UTF_8))),
+                UserBatchResultDto.class).join().getBody();
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(receivedBody.get()).isEqualTo(users);
+        assertThat(receivedEncoding.get()).isEqualTo("chunked");
+    }
+
+    // Как в ServerClientConfig: без буферизации тела запроса
+    private static ClientHttpRequestFactory unbufferedRequestFactory() {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сквозная проверка: запрос к gateway дает SERVER и дочерний CLIENT span, а сервер-заглушка
+ * получает traceparent с той же трассой и id спана CLIENT в качестве родителя.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.cache.enabled=false",
+        "shareit.tracing.exporter=none"
+})
+class TracingServerTransportTest {
+
+    private static final AtomicReference<String> traceparent = new AtomicReference<>();
+    private static HttpServer stub;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stub.createContext("/users", exchange -> {
+            traceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+            byte[] body = "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        stub.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + stub.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        traceparent.set(null);
+        exporter.reset();
+    }
+
+    @Test
+    void testTraceparentIsSentToServer() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        Map<String, SpanData> spans = finishedSpans();
+        SpanData server = spans.get("GET /users/{id}");
+        SpanData client = spans.get("GET /users");
+
+        assertThat(server.getKind()).isEqualTo(SpanKind.SERVER);
+        assertThat(client.getKind()).isEqualTo(SpanKind.CLIENT);
+        assertThat(client.getParentSpanId()).isEqualTo(server.getSpanId());
+        assertThat(traceparent.get()).isEqualTo("00-" + client.getTraceId() + "-" + client.getSpanId() + "-01");
+    }
+
+    // SERVER закрывается по завершении асинхронного ответа, уже после того, как клиент получил тело
+    private Map<String, SpanData> finishedSpans() throws InterruptedException {
+        for (int i = 0; i < 50 && exporter.getFinishedSpanItems().size() < 2; i++) {
+            tracerProvider.forceFlush().join(1, TimeUnit.SECONDS);
+            Thread.sleep(20);
+        }
+        return exporter.getFinishedSpanItems().stream()
+                .collect(Collectors.toMap(SpanData::getName, Function.identity(), (a, b) -> a));
+    }
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracingConfigTest {
+
+    private final TracingConfig config = new TracingConfig();
+
+    // gateway без коллектора не должен отключать запись трасс на сервере со своим endpoint
+    @Test
+    void testWithoutExporterTraceparentIsStillSampled() {
+        TracingProperties properties = new TracingProperties();
+        properties.setExporter("none");
+        HttpHeaders headers = new HttpHeaders();
+
+        try (SdkTracerProvider tracerProvider = config.sdkTracerProvider(properties, List.of())) {
+            Span span = config.tracer(config.openTelemetry(tracerProvider)).spanBuilder("GET /users").startSpan();
+            config.openTelemetry(tracerProvider).getPropagators().getTextMapPropagator()
+                    .inject(Context.current().with(span), headers, HttpHeaders::set);
+            span.end();
+        }
+
+        assertThat(headers.getFirst("traceparent")).endsWith("-01");
+    }
+}
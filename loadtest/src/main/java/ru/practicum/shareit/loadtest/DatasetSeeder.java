@@ -0,0 +1,239 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Заполняет базу напрямую через JDBC. Схема берется из schema.sql собранного jar сервера, чтобы данные
+ * ложились ровно в те таблицы и индексы, с которыми сервер работает в проде.
+ */
+final class DatasetSeeder {
+
+    static final String[] WORDS = {"дрель", "перфоратор", "шуруповерт", "лобзик", "болгарка", "рубанок",
+            "стремянка", "палатка", "спальник", "велосипед", "самокат", "лыжи", "удочка", "мангал", "пылесос",
+            "проектор", "фотоаппарат", "штатив", "гитара", "компрессор"};
+
+    private static final String[] ADJECTIVES = {"аккумуляторная", "новая", "легкая", "профессиональная",
+            "компактная", "мощная", "складная", "надежная"};
+    private static final int BATCH_SIZE = 1_000;
+    private static final int SEQUENCE_STEP = 50;
+
+    private final LoadTestOptions options;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    DatasetSeeder(LoadTestOptions options) {
+        this.options = options;
+        this.random = new Random(options.randomSeed());
+    }
+
+    /**
+     * Число пользователей-владельцев: первые id, им принадлежат все вещи.
+     */
+    static int owners(LoadTestOptions options) {
+        return Math.max(1, options.users() / 5);
+    }
+
+    void seed() throws SQLException, IOException {
+        try (Connection connection = DriverManager.getConnection(options.dbUrl(), options.dbUser(),
+                options.dbPassword())) {
+            createSchema(connection);
+            connection.setAutoCommit(false);
+            insertUsers(connection);
+            insertRequests(connection);
+            long[] itemOwners = insertItems(connection);
+            insertBookings(connection, itemOwners);
+            insertComments(connection);
+            restartIds(connection);
+            connection.commit();
+        }
+    }
+
+    private void createSchema(Connection connection) throws SQLException, IOException {
+        List<String> scripts = new ArrayList<>(List.of("schema.sql"));
+        if (!options.h2()) {
+            scripts.add("schema-postgresql.sql");
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String script : scripts) {
+                for (String sql : statements(readFromServerJar(script))) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private String readFromServerJar(String name) throws IOException {
+        Path jar = options.serverJar();
+        try (JarFile file = new JarFile(jar.toFile())) {
+            ZipEntry entry = file.getEntry("BOOT-INF/classes/" + name);
+            if (entry == null) {
+                throw new IllegalStateException("В " + jar + " нет " + name);
+            }
+            try (InputStream in = file.getInputStream(entry)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private static List<String> statements(String script) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (String sql : withoutComments.toString().split(";")) {
+            if (!sql.isBlank()) {
+                result.add(sql.trim());
+            }
+        }
+        return result;
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, name, email, version) VALUES (?, ?, ?, 0)")) {
+            for (int id = 1; id <= options.users(); id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Пользователь " + id);
+                insert.setString(3, "user" + id + "@loadtest.ru");
+                add(insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void insertRequests(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO requests (id, description, requester_id, created, version) VALUES (?, ?, ?, ?, 0)")) {
+            for (int id = 1; id <= options.requests(); id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Нужна " + word() + " на выходные");
+                insert.setLong(3, userId());
+                insert.setObject(4, now.minusMinutes(random.nextInt(365 * 24 * 60)));
+                add(insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private long[] insertItems(Connection connection) throws SQLException {
+        int owners = owners(options);
+        long[] itemOwners = new long[options.items() + 1];
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items "
+                + "(id, name, description, is_available, owner_id, request_id, version) VALUES (?, ?, ?, ?, ?, ?, 0)")) {
+            for (int id = 1; id <= options.items(); id++) {
+                String word = word();
+                itemOwners[id] = 1 + random.nextInt(owners);
+                insert.setLong(1, id);
+                insert.setString(2, Character.toUpperCase(word.charAt(0)) + word.substring(1));
+                insert.setString(3, ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + word + ", вещь " + id);
+                insert.setBoolean(4, random.nextInt(10) != 0);
+                insert.setLong(5, itemOwners[id]);
+                // Каждая пятая вещь добавлена в ответ на запрос
+                if (random.nextInt(5) == 0) {
+                    insert.setLong(6, 1 + random.nextInt(options.requests()));
+                } else {
+                    insert.setNull(6, Types.BIGINT);
+                }
+                add(insert, id);
+            }
+            insert.executeBatch();
+        }
+        return itemOwners;
+    }
+
+    private void insertBookings(Connection connection, long[] itemOwners) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bookings "
+                + "(id, start_date, end_date, item_id, booker_id, status, owner_id, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)")) {
+            for (int id = 1; id <= options.bookings(); id++) {
+                int itemId = 1 + random.nextInt(options.items());
+                long ownerId = itemOwners[itemId];
+                long bookerId = userId();
+                if (bookerId == ownerId) {
+                    bookerId = bookerId % options.users() + 1;
+                }
+                // Год в прошлом и пять недель вперед: попадают все состояния PAST, CURRENT и FUTURE
+                LocalDateTime start = now.plusHours(random.nextInt(400 * 24) - 365 * 24);
+                insert.setLong(1, id);
+                insert.setObject(2, start);
+                insert.setObject(3, start.plusHours(1 + random.nextInt(7 * 24)));
+                insert.setLong(4, itemId);
+                insert.setLong(5, bookerId);
+                insert.setString(6, status());
+                insert.setLong(7, ownerId);
+                add(insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void insertComments(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= options.comments(); id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Брал " + word() + ", все работает");
+                insert.setLong(3, 1 + random.nextInt(options.items()));
+                insert.setLong(4, userId());
+                insert.setObject(5, now.minusMinutes(random.nextInt(365 * 24 * 60)));
+                add(insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // Записи, созданные сервером во время прогона, не должны получить уже занятые id
+    private void restartIds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE users_seq RESTART WITH " + (options.users() + SEQUENCE_STEP + 1));
+            statement.execute("ALTER SEQUENCE items_seq RESTART WITH " + (options.items() + SEQUENCE_STEP + 1));
+            statement.execute("ALTER TABLE requests ALTER COLUMN id RESTART WITH " + (options.requests() + 1));
+            statement.execute("ALTER TABLE bookings ALTER COLUMN id RESTART WITH " + (options.bookings() + 1));
+            statement.execute("ALTER TABLE comments ALTER COLUMN id RESTART WITH " + (options.comments() + 1));
+        }
+    }
+
+    private static void add(PreparedStatement insert, int row) throws SQLException {
+        insert.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            insert.executeBatch();
+        }
+    }
+
+    private long userId() {
+        return 1 + random.nextInt(options.users());
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String status() {
+        int value = random.nextInt(100);
+        if (value < 70) {
+            return "APPROVED";
+        }
+        if (value < 85) {
+            return "WAITING";
+        }
+        return value < 95 ? "REJECTED" : "CANCELLED";
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Замкнутая нагрузка: concurrency потоков шлют запросы в gateway один за другим без пауз. Вид запроса
+ * выбирается случайно с весами ниже, первые warmup секунд результаты не учитываются.
+ */
+final class LoadDriver {
+
+    enum Endpoint {
+        BOOKINGS("bookings", 25),
+        BOOKINGS_OWNER("bookings-owner", 20),
+        ITEMS("items", 20),
+        ITEMS_SEARCH("items-search", 20),
+        REQUESTS_ALL("requests-all", 15);
+
+        private final String label;
+        private final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String PAGE = "from=0&size=10";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final String gatewayUrl;
+
+    LoadDriver(LoadTestOptions options, HttpClient client, String gatewayUrl) {
+        this.options = options;
+        this.client = client;
+        this.gatewayUrl = gatewayUrl;
+    }
+
+    /**
+     * Результаты по видам запросов в порядке Endpoint.
+     */
+    Map<Endpoint, LatencyRecorder> run() throws Exception {
+        long warmupEnd = System.nanoTime() + options.warmup().toNanos();
+        long end = warmupEnd + options.duration().toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Future<Map<Endpoint, LatencyRecorder>>> workers = new ArrayList<>();
+            for (int i = 0; i < options.concurrency(); i++) {
+                Random random = new Random(options.randomSeed() + i);
+                workers.add(pool.submit(() -> work(random, warmupEnd, end)));
+            }
+            Map<Endpoint, LatencyRecorder> total = recorders();
+            for (Future<Map<Endpoint, LatencyRecorder>> worker : workers) {
+                worker.get().forEach((endpoint, recorder) -> total.get(endpoint).merge(recorder));
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Map<Endpoint, LatencyRecorder> work(Random random, long warmupEnd, long end) {
+        Map<Endpoint, LatencyRecorder> recorders = recorders();
+        long now = System.nanoTime();
+        while (now < end) {
+            Endpoint endpoint = pick(random);
+            HttpRequest request = request(endpoint, random);
+            boolean ok;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status >= 200 && status < 300;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long finished = System.nanoTime();
+            if (now >= warmupEnd) {
+                if (ok) {
+                    recorders.get(endpoint).record(finished - now);
+                } else {
+                    recorders.get(endpoint).error();
+                }
+            }
+            now = finished;
+        }
+        return recorders;
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random) {
+        int users = options.users();
+        int owners = DatasetSeeder.owners(options);
+        long userId;
+        String path;
+        switch (endpoint) {
+            case BOOKINGS:
+                userId = 1 + random.nextInt(users);
+                path = "/bookings?state=ALL&" + PAGE;
+                break;
+            case BOOKINGS_OWNER:
+                userId = 1 + random.nextInt(owners);
+                path = "/bookings/owner?state=ALL&" + PAGE;
+                break;
+            case ITEMS:
+                userId = 1 + random.nextInt(owners);
+                path = "/items?" + PAGE;
+                break;
+            case ITEMS_SEARCH:
+                userId = 1 + random.nextInt(users);
+                String word = DatasetSeeder.WORDS[random.nextInt(DatasetSeeder.WORDS.length)];
+                path = "/items/search?text=" + URLEncoder.encode(word, StandardCharsets.UTF_8) + "&" + PAGE;
+                break;
+            default:
+                userId = 1 + random.nextInt(users);
+                path = "/requests/all?" + PAGE;
+        }
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .header(USER_ID, String.valueOf(userId))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private static Endpoint pick(Random random) {
+        int value = random.nextInt(100);
+        for (Endpoint endpoint : Endpoint.values()) {
+            value -= endpoint.weight;
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Сумма весов запросов меньше 100");
+    }
+
+    private static Map<Endpoint, LatencyRecorder> recorders() {
+        Map<Endpoint, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new LatencyRecorder());
+        }
+        return recorders;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сквозной нагрузочный прогон: засевает базу, запускает сервер и gateway из собранных jar и нагружает
+ * gateway смесью запросов /bookings, /bookings/owner, /items, /items/search и /requests/all.
+ * Итог - p50/p90/p99 и пропускная способность по каждому запросу в report.json рабочего каталога.
+ * Запуск из корня проекта после mvn install -DskipTests:
+ * java -jar loadtest/target/loadtest.jar --bookings=1000000 --duration=60s
+ * PostgreSQL вместо файловой H2: --db-url=jdbc:postgresql://localhost:5432/shareit --db-user=root --db-password=root
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Files.createDirectories(options.workDir());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        double seedSeconds = 0;
+        if (options.seed()) {
+            System.out.println("Заполнение базы " + options.dbUrl());
+            long started = System.nanoTime();
+            new DatasetSeeder(options).seed();
+            seedSeconds = seconds(System.nanoTime() - started);
+            System.out.printf("База заполнена за %.1f с%n", seedSeconds);
+        }
+
+        int serverPort = freePort();
+        List<String> serverArgs = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + options.dbUrl(),
+                "--spring.datasource.username=" + options.dbUser(),
+                "--spring.datasource.password=" + options.dbPassword(),
+                // Схему и данные уже создал DatasetSeeder
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--shareit.tracing.exporter=none",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        if (options.h2()) {
+            serverArgs.add("--spring.profiles.active=test");
+        }
+        try (AppProcess server = AppProcess.start("server", options.serverJar(), serverPort, options.workDir(),
+                serverArgs)) {
+            server.awaitHealthy(client);
+            try (AppProcess gateway = AppProcess.start("gateway", options.gatewayJar(), freePort(),
+                    options.workDir(), List.of(
+                            "--shareit-server.url=" + server.url(),
+                            "--shareit.tracing.exporter=none",
+                            "--logging.level.root=WARN",
+                            "--logging.level.org.springframework.web.client.RestTemplate=WARN"))) {
+                gateway.awaitHealthy(client);
+                System.out.println("Нагрузка: " + options.concurrency() + " потоков, прогрев " + options.warmup()
+                        + ", замер " + options.duration());
+                String startedAt = OffsetDateTime.now().toString();
+                Map<LoadDriver.Endpoint, LatencyRecorder> results =
+                        new LoadDriver(options, client, gateway.url()).run();
+                writeReport(options, startedAt, seedSeconds, results);
+            }
+        }
+    }
+
+    private static void writeReport(LoadTestOptions options, String startedAt, double seedSeconds,
+                                    Map<LoadDriver.Endpoint, LatencyRecorder> results) throws IOException {
+        double seconds = seconds(options.duration().toNanos());
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        results.forEach((endpoint, recorder) -> {
+            endpoints.put(endpoint.label(), recorder.summary(seconds));
+            total.merge(recorder);
+        });
+
+        Map<String, Object> dataset = new LinkedHashMap<>();
+        dataset.put("db", options.dbUrl());
+        dataset.put("users", options.users());
+        dataset.put("items", options.items());
+        dataset.put("requests", options.requests());
+        dataset.put("bookings", options.bookings());
+        dataset.put("comments", options.comments());
+        dataset.put("seeded", options.seed());
+        dataset.put("seedSeconds", seedSeconds);
+
+        Map<String, Object> load = new LinkedHashMap<>();
+        load.put("concurrency", options.concurrency());
+        load.put("warmupSeconds", seconds(options.warmup().toNanos()));
+        load.put("durationSeconds", seconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt);
+        report.put("dataset", dataset);
+        report.put("load", load);
+        report.put("total", total.summary(seconds));
+        report.put("endpoints", endpoints);
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+        System.out.printf("%-16s %10s %8s %10s %10s %10s%n", "запрос", "req/s", "ошибки", "p50, мс", "p99, мс",
+                "max, мс");
+        endpoints.put("total", report.get("total"));
+        endpoints.forEach((name, value) -> {
+            Map<?, ?> summary = (Map<?, ?>) value;
+            System.out.printf("%-16s %10s %8s %10s %10s %10s%n", name, summary.get("throughputPerSecond"),
+                    summary.get("errors"), summary.get("p50Ms"), summary.get("p99Ms"), summary.get("maxMs"));
+        });
+        System.out.println("Отчет: " + options.report());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return Math.round(nanos / 1e8) / 10.0;
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Параметры прогона из аргументов вида --name=value. Без аргументов - небольшой набор данных на файловой H2.
+ */
+final class LoadTestOptions {
+
+    private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put("users", "10000");
+        DEFAULTS.put("items", "20000");
+        DEFAULTS.put("requests", "5000");
+        DEFAULTS.put("bookings", "200000");
+        DEFAULTS.put("comments", "20000");
+        DEFAULTS.put("random-seed", "42");
+        // false - взять данные, уже засеянные прошлым прогоном с теми же объемами
+        DEFAULTS.put("seed", "true");
+        DEFAULTS.put("concurrency", "32");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("duration", "30s");
+        DEFAULTS.put("work-dir", "target/loadtest");
+        DEFAULTS.put("db-url", "");
+        DEFAULTS.put("db-user", "test");
+        DEFAULTS.put("db-password", "test");
+        DEFAULTS.put("server-jar", "server/target/shareit-server-0.0.1-SNAPSHOT-exec.jar");
+        DEFAULTS.put("gateway-jar", "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar");
+        DEFAULTS.put("report", "");
+    }
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Ожидается --имя=значение: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Неизвестный параметр " + name + ", доступны: "
+                        + new TreeSet<>(DEFAULTS.keySet()));
+            }
+            values.put(name, arg.substring(eq + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    int users() {
+        return positive("users");
+    }
+
+    int items() {
+        return positive("items");
+    }
+
+    int requests() {
+        return positive("requests");
+    }
+
+    int bookings() {
+        return positive("bookings");
+    }
+
+    int comments() {
+        return positive("comments");
+    }
+
+    long randomSeed() {
+        return Long.parseLong(values.get("random-seed"));
+    }
+
+    boolean seed() {
+        return Boolean.parseBoolean(values.get("seed"));
+    }
+
+    int concurrency() {
+        return positive("concurrency");
+    }
+
+    Duration warmup() {
+        return DurationStyle.detectAndParse(values.get("warmup"));
+    }
+
+    Duration duration() {
+        return DurationStyle.detectAndParse(values.get("duration"));
+    }
+
+    Path workDir() {
+        return Paths.get(values.get("work-dir")).toAbsolutePath();
+    }
+
+    String dbUrl() {
+        String url = values.get("db-url");
+        return url.isEmpty() ? "jdbc:h2:file:" + workDir().resolve("shareit") : url;
+    }
+
+    boolean h2() {
+        return dbUrl().startsWith("jdbc:h2:");
+    }
+
+    String dbUser() {
+        return values.get("db-user");
+    }
+
+    String dbPassword() {
+        return values.get("db-password");
+    }
+
+    Path serverJar() {
+        return Paths.get(values.get("server-jar")).toAbsolutePath();
+    }
+
+    Path gatewayJar() {
+        return Paths.get(values.get("gateway-jar")).toAbsolutePath();
+    }
+
+    Path report() {
+        String report = values.get("report");
+        return report.isEmpty() ? workDir().resolve("report.json") : Paths.get(report).toAbsolutePath();
+    }
+
+    private int positive(String name) {
+        int value = Integer.parseInt(values.get(name));
+        if (value <= 0) {
+            throw new IllegalArgumentException("Параметр " + name + " должен быть больше нуля: " + value);
+        }
+        return value;
+    }
+}
@@ -2,11 +2,14 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.pagination.SeekCursor;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -38,27 +41,49 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getByBookingId(@RequestHeader(USER_ID) Long id,
-                                             @PathVariable Long bookingId) {
+    public ResponseEntity<BookingResponseDto> getByBookingId(@RequestHeader(USER_ID) Long id,
+                                                             @PathVariable Long bookingId) {
         log.info("get booking by id={}", id);
-        return service.getByBookingId(id, bookingId);
+        BookingResponseDto booking = service.getByBookingId(id, bookingId);
+        return ResponseEntity.ok().eTag(EntityTag.of(booking)).body(booking);
     }
 
     @GetMapping
-    public List<BookingResponseDto> getByBookerId(@RequestHeader(USER_ID) Long bookerId,
-                                                  @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "10") int size,
-                                                  @RequestParam(defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingResponseDto>> getByBookerId(@RequestHeader(USER_ID) Long bookerId,
+                                                                  @RequestParam(defaultValue = "0") int from,
+                                                                  @RequestParam(defaultValue = "10") int size,
+                                                                  @RequestParam(defaultValue = "ALL") String state,
+                                                                  @RequestParam(required = false) String after) {
         log.info("get booking by booker id={}", bookerId);
-        return service.getByBookerId(bookerId, state, from, size);
+        List<BookingResponseDto> bookings = after == null
+                ? service.getByBookerId(bookerId, state, from, size)
+                : service.getByBookerIdAfter(bookerId, state, SeekCursor.decode(after), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getByOwnerId(@RequestHeader(USER_ID) Long ownerId,
-                                                 @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "10") int size,
-                                                 @RequestParam(defaultValue = "ALL") String state) {
+    public ResponseEntity<List<BookingResponseDto>> getByOwnerId(@RequestHeader(USER_ID) Long ownerId,
+                                                                 @RequestParam(defaultValue = "0") int from,
+                                                                 @RequestParam(defaultValue = "10") int size,
+                                                                 @RequestParam(defaultValue = "ALL") String state,
+                                                                 @RequestParam(required = false) String after) {
         log.info("get booking by owner id={}", ownerId);
-        return service.getByOwnerId(ownerId, state, from, size);
+        List<BookingResponseDto> bookings = after == null
+                ? service.getByOwnerId(ownerId, state, from, size)
+                : service.getByOwnerIdAfter(ownerId, state, SeekCursor.decode(after), size);
+        return withNextCursor(bookings, size);
+    }
+
+    // Полная страница — возможно, есть продолжение: отдаём курсор на последний элемент
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, int size) {
+        String etag = EntityTag.ofBookings(bookings);
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok().eTag(etag).body(bookings);
+        }
+        BookingResponseDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(SeekCursor.NEXT_CURSOR_HEADER, new SeekCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
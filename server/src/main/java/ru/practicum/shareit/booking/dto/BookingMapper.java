@@ -24,7 +24,9 @@ public interface BookingMapper {
             @Mapping(target = "end", source = "bookingRequestDto.end"),
             @Mapping(target = "item", source = "item"),
             @Mapping(target = "booker", source = "booker"),
-            @Mapping(target = "status", ignore = true)
+            @Mapping(target = "status", ignore = true),
+            @Mapping(target = "ownerId", source = "item.owner.id"),
+            @Mapping(target = "version", ignore = true)
     })
     Booking toBooking(BookingRequestDto bookingRequestDto, Item item, User booker);
 
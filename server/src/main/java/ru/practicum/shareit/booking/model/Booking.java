@@ -39,4 +39,20 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private BookingStatus status;
-}
\ No newline at end of file
+
+    // Денормализованный владелец вещи: выборки /bookings/owner идут по индексу без join на items
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // Оптимистическая блокировка и ETag ответов
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @PrePersist
+    void fillOwnerId() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.SeekCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры выборки бронирований: чьи (роль + id пользователя), в каком состоянии относительно момента now
+ * и какая страница — по смещению или после курсора.
+ */
+@Getter
+@Builder
+public class BookingQuery {
+    private final BookingRole role;
+    private final Long userId;
+    private final BookingState state;
+    private final LocalDateTime now;
+    private final SeekCursor after;
+    private final int offset;
+    private final int limit;
+}
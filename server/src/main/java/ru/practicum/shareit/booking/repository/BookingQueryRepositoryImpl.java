@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Единый запрос списков бронирований для всех сочетаний роли и состояния.
+ * Все значения передаются параметрами, поэтому для одной формы запроса (роль, состояние, курсор)
+ * генерируется один и тот же SQL и драйвер переиспользует подготовленное выражение.
+ * Без count-запроса: страница ограничивается LIMIT, а курсор заменяет OFFSET.
+ * Время каждого сочетания роли и состояния пишется в таймер shareit.bookings.query с тегами role и state.
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    private static final String TIMER = "shareit.bookings.query";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final Map<BookingRole, Map<BookingState, Timer>> timers = new EnumMap<>(BookingRole.class);
+
+    // В срезах @DataJpaTest реестра метрик нет, тогда таймеры пишутся в глобальный
+    public BookingQueryRepositoryImpl(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        for (BookingRole role : BookingRole.values()) {
+            Map<BookingState, Timer> byState = new EnumMap<>(BookingState.class);
+            for (BookingState state : BookingState.values()) {
+                byState.put(state, Timer.builder(TIMER)
+                        .description("Выборка страницы бронирований")
+                        .tag("role", role.name())
+                        .tag("state", state.name())
+                        .register(meterRegistry));
+            }
+            timers.put(role, byState);
+        }
+    }
+
+    @Override
+    public List<Booking> findBookings(BookingQuery query) {
+        return timers.get(query.getRole()).get(query.getState()).record(() -> select(query));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Booking> select(BookingQuery query) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Booking> cq = cb.createQuery(Booking.class);
+        Root<Booking> booking = cq.from(Booking.class);
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        Join<Booking, User> booker = (Join<Booking, User>) booking.<Booking, User>fetch("booker");
+
+        Map<ParameterExpression<?>, Object> parameters = new LinkedHashMap<>();
+        List<Predicate> predicates = new ArrayList<>();
+
+        Path<Long> userId = query.getRole() == BookingRole.OWNER
+                ? booking.get("ownerId")
+                : booker.get("id");
+        predicates.add(cb.equal(userId, bind(cb, parameters, Long.class, query.getUserId())));
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        switch (query.getState()) {
+            case ALL:
+                break;
+            case CURRENT:
+                ParameterExpression<LocalDateTime> now = bind(cb, parameters, LocalDateTime.class, query.getNow());
+                predicates.add(cb.lessThanOrEqualTo(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, bind(cb, parameters, LocalDateTime.class, query.getNow())));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, bind(cb, parameters, LocalDateTime.class, query.getNow())));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"),
+                        bind(cb, parameters, BookingStatus.class, BookingStatus.WAITING)));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"),
+                        bind(cb, parameters, BookingStatus.class, BookingStatus.REJECTED)));
+                break;
+            default:
+                throw new IllegalStateException("Unknown state: " + query.getState());
+        }
+
+        if (query.getAfter() != null) {
+            ParameterExpression<LocalDateTime> afterStart =
+                    bind(cb, parameters, LocalDateTime.class, query.getAfter().getTimestamp());
+            ParameterExpression<Long> afterId = bind(cb, parameters, Long.class, query.getAfter().getId());
+            predicates.add(cb.or(
+                    cb.lessThan(start, afterStart),
+                    cb.and(cb.equal(start, afterStart), cb.lessThan(booking.get("id"), afterId))));
+        }
+
+        cq.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(booking.get("id")));
+
+        TypedQuery<Booking> typedQuery = em.createQuery(cq);
+        parameters.forEach((parameter, value) -> typedQuery.setParameter((ParameterExpression<Object>) parameter, value));
+        return typedQuery
+                .setFirstResult(query.getAfter() == null ? query.getOffset() : 0)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+
+    private static <T> ParameterExpression<T> bind(CriteriaBuilder cb, Map<ParameterExpression<?>, Object> parameters,
+                                                   Class<T> type, T value) {
+        ParameterExpression<T> parameter = cb.parameter(type);
+        parameters.put(parameter, value);
+        return parameter;
+    }
+}
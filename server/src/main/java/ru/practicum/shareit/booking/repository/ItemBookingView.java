@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface ItemBookingView {
+
+    Long getId();
+
+    Long getBookerId();
+
+    Long getItemId();
+}
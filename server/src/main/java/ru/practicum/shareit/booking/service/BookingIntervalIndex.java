@@ -0,0 +1,159 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс занятости вещей в памяти: для каждой вещи хранит интервалы [start, end)
+ * бронирований в статусах WAITING и APPROVED, отсортированные по началу.
+ * Позволяет проверить пересечение без обращения к базе.
+ * Загружается после создания бинов, до запуска веб-сервера, чтобы первые запросы уже видели
+ * бронирования из базы.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+
+    static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> intervalsByItem = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        warmUp();
+    }
+
+    // Загруженное вливается в рабочий индекс без очистки: брони, сделанные во время загрузки
+    // (в том числе еще не закоммиченные), не теряются
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByStatusEndingAfter(BLOCKING_STATUSES, now);
+        Map<Long, ItemIntervals> loaded = new HashMap<>();
+        for (BookingInterval interval : intervals) {
+            loaded.computeIfAbsent(interval.getItemId(), id -> new ItemIntervals())
+                    .add(interval.getStart(), interval.getEnd());
+        }
+        loaded.forEach((itemId, loadedIntervals) -> {
+            ItemIntervals live = items(itemId);
+            synchronized (live) {
+                live.merge(loadedIntervals);
+            }
+        });
+        log.info("Индекс бронирований загружен: {} интервалов по {} вещам", intervals.size(), intervalsByItem.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsByItem.get(itemId);
+        if (intervals == null) {
+            return true;
+        }
+        synchronized (intervals) {
+            return !intervals.overlaps(start, end);
+        }
+    }
+
+    /**
+     * Атомарно проверяет, что вещь свободна в [start, end), и занимает интервал.
+     *
+     * @return false, если интервал пересекается с уже занятым
+     */
+    public boolean tryReserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = items(itemId);
+        synchronized (intervals) {
+            intervals.evictFinished(LocalDateTime.now());
+            if (intervals.overlaps(start, end)) {
+                return false;
+            }
+            intervals.add(start, end);
+            return true;
+        }
+    }
+
+    public void release(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsByItem.get(itemId);
+        if (intervals != null) {
+            synchronized (intervals) {
+                intervals.remove(start, end);
+            }
+        }
+    }
+
+    private ItemIntervals items(Long itemId) {
+        return intervalsByItem.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    private static final class ItemIntervals {
+
+        private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::getStart)
+                .thenComparing(Interval::getEnd);
+
+        // Интервал -> число бронирований с такими границами (в старых данных возможны дубли)
+        private final NavigableMap<Interval, Integer> intervals = new TreeMap<>(ORDER);
+        // Самая длинная бронь ограничивает окно, в котором ищутся пересечения
+        private Duration maxDuration = Duration.ZERO;
+
+        void add(LocalDateTime start, LocalDateTime end) {
+            intervals.merge(new Interval(start, end), 1, Integer::sum);
+            Duration duration = Duration.between(start, end);
+            if (duration.compareTo(maxDuration) > 0) {
+                maxDuration = duration;
+            }
+        }
+
+        // Бронь, сделанная во время загрузки и уже попавшая в выборку, учитывается один раз
+        void merge(ItemIntervals loaded) {
+            loaded.intervals.forEach((interval, count) -> intervals.merge(interval, count, Math::max));
+            if (loaded.maxDuration.compareTo(maxDuration) > 0) {
+                maxDuration = loaded.maxDuration;
+            }
+        }
+
+        void remove(LocalDateTime start, LocalDateTime end) {
+            intervals.computeIfPresent(new Interval(start, end), (interval, count) -> count > 1 ? count - 1 : null);
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            // Пересекаться могут только интервалы, начавшиеся в (start - maxDuration, end)
+            Interval from = new Interval(start.minus(maxDuration), LocalDateTime.MAX);
+            Interval to = new Interval(end, LocalDateTime.MIN);
+            for (Interval interval : intervals.subMap(from, false, to, false).descendingKeySet()) {
+                if (interval.getEnd().isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void evictFinished(LocalDateTime now) {
+            intervals.headMap(new Interval(now.minus(maxDuration), LocalDateTime.MIN), false).clear();
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Interval {
+
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+    }
+}
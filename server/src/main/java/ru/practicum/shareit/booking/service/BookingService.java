@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.pagination.SeekCursor;
 
 import java.util.List;
 
@@ -16,4 +17,8 @@ public interface BookingService {
     List<BookingResponseDto> getByBookerId(Long bookerId, String state, Integer from, Integer size);
 
     List<BookingResponseDto> getByOwnerId(Long ownerId, String state, Integer from, Integer size);
+
+    List<BookingResponseDto> getByBookerIdAfter(Long bookerId, String state, SeekCursor after, Integer size);
+
+    List<BookingResponseDto> getByOwnerIdAfter(Long ownerId, String state, SeekCursor after, Integer size);
 }
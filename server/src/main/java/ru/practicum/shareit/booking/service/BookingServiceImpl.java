@@ -1,26 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.error.EntityNotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
@@ -28,6 +34,8 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final UserExistenceCheck userExistence;
 
     @Override
     public BookingResponseDto save(Long bookerId, BookingRequestDto requestDto) {
@@ -40,8 +48,17 @@ public class BookingServiceImpl implements BookingService {
         if (Objects.equals(item.getOwner().getId(), bookerId)) {
             throw new EntityNotFoundException("Владелец не может бронировать свои лоты");
         }
+        if (!intervalIndex.tryReserve(item.getId(), requestDto.getStart(), requestDto.getEnd())) {
+            throw new ValidationException("Лот уже забронирован на эти даты");
+        }
         Booking bookingAfterMap = BookingMapper.INSTANCE.toBooking(requestDto, item, booker);
-        Booking savedBooking = bookingRepository.save(bookingAfterMap);
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.save(bookingAfterMap);
+        } catch (RuntimeException e) {
+            intervalIndex.release(item.getId(), requestDto.getStart(), requestDto.getEnd());
+            throw e;
+        }
         return BookingMapper.INSTANCE.toBookingResponseDto(savedBooking);
     }
 
@@ -58,6 +75,9 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Состояние меняется только из WAITING");
         }
         Booking savedBooking = bookingRepository.save(booking);
+        if (savedBooking.getStatus() == BookingStatus.REJECTED) {
+            intervalIndex.release(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        }
         return BookingMapper.INSTANCE.toBookingResponseDto(savedBooking);
     }
 
@@ -80,58 +100,40 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> getByBookerId(Long bookerId, String state, Integer from, Integer size) {
-        findUserById(bookerId);
-
-        Pageable pageable = PageRequest.of(from / size, size);
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findAllByGivenUserId(bookerId, pageable).getContent());
-            case CURRENT:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findCurrentBookingsByBookerId(bookerId, pageable).getContent());
-            case PAST:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findPastBookingsByBookerId(bookerId, pageable).getContent());
-            case FUTURE:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findFutureBookingsByBookerId(bookerId, pageable).getContent());
-            case WAITING:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findWaitingBookingsByBookerId(bookerId, pageable).getContent());
-            case REJECTED:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findRejectedBookingsByBookerId(bookerId, pageable).getContent());
-        }
-        throw new IllegalStateException("Unknown state: " + state);
+        userExistence.requireExists(bookerId);
+        return findBookings(BookingRole.BOOKER, bookerId, state, null, from / size * size, size);
     }
 
     @Override
     public List<BookingResponseDto> getByOwnerId(Long ownerId, String state, Integer from, Integer size) {
-        findUserById(ownerId);
+        userExistence.requireExists(ownerId);
+        return findBookings(BookingRole.OWNER, ownerId, state, null, from / size * size, size);
+    }
 
-        Pageable pageable = PageRequest.of(from / size, size);
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findAllBookingsByOwnerId(ownerId, pageable).getContent());
-            case CURRENT:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findCurrentBookingsByOwnerId(ownerId, pageable).getContent());
-            case PAST:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findPastBookingsByOwnerId(ownerId, pageable).getContent());
-            case FUTURE:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findFutureBookingsByOwnerId(ownerId, pageable).getContent());
-            case WAITING:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findWaitingBookingsByOwnerId(ownerId, pageable).getContent());
-            case REJECTED:
-                return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository
-                        .findRejectedBookingsByOwnerId(ownerId, pageable).getContent());
-        }
-        throw new IllegalStateException("Unknown state: " + state);
+    @Override
+    public List<BookingResponseDto> getByBookerIdAfter(Long bookerId, String state, SeekCursor after, Integer size) {
+        userExistence.requireExists(bookerId);
+        return findBookings(BookingRole.BOOKER, bookerId, state, after, 0, size);
+    }
+
+    @Override
+    public List<BookingResponseDto> getByOwnerIdAfter(Long ownerId, String state, SeekCursor after, Integer size) {
+        userExistence.requireExists(ownerId);
+        return findBookings(BookingRole.OWNER, ownerId, state, after, 0, size);
+    }
+
+    private List<BookingResponseDto> findBookings(BookingRole role, Long userId, String state, SeekCursor after,
+                                                  int offset, int size) {
+        BookingQuery query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(BookingState.valueOf(state))
+                .now(LocalDateTime.now())
+                .after(after)
+                .offset(offset)
+                .limit(size)
+                .build();
+        return BookingMapper.INSTANCE.toBookingResponseDtoList(bookingRepository.findBookings(query));
     }
 
     private User findUserById(Long userId) {
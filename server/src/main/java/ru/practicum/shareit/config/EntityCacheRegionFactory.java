@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import javax.cache.Cache;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine. Подключается свойством
+ * {@code hibernate.cache.region.factory_class}, поэтому работает и в срезах {@code @DataJpaTest}.
+ * У каждой фабрики сессий свой CacheManager: иначе контексты с разными базами (например, в тестах)
+ * видели бы записи друг друга. Регионы ограничены по размеру и времени жизни.
+ */
+public class EntityCacheRegionFactory extends JCacheRegionFactory {
+
+    public static final String MAX_SIZE = "shareit.entity-cache.max-size";
+    public static final String TTL_MINUTES = "shareit.entity-cache.ttl-minutes";
+
+    private long maxSize;
+    private long ttlMinutes;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+        maxSize = ConfigurationHelper.getLong(MAX_SIZE, configValues, 10_000);
+        ttlMinutes = ConfigurationHelper.getLong(TTL_MINUTES, configValues, 10);
+        super.prepareForUse(settings, configValues);
+    }
+
+    @Override
+    protected URI getUri(SessionFactoryOptions settings, Map properties) {
+        return URI.create("shareit:entity-cache:" + UUID.randomUUID());
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        return getCacheManager().createCache(regionName, configuration);
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.error;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -34,6 +35,14 @@ public class ErrorHandler {
         return new ErrorResponse(exception.getMessage());
     }
 
+    // Сущность изменена параллельным запросом после чтения (поле @Version)
+    @ExceptionHandler(value = OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handlerOptimisticLockingFailureException(final OptimisticLockingFailureException exception) {
+        log.info("Конфликт параллельного изменения {}", exception.getMessage());
+        return new ErrorResponse("Данные были изменены другим запросом, повторите запрос");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> handlePostmanTest(final IllegalStateException e) {
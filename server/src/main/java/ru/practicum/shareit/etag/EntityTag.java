@@ -0,0 +1,139 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+
+/**
+ * Слабый ETag ответа по идентификаторам и версиям сущностей, попавших в него. Тело для этого
+ * сериализовать не нужно: при совпадении с If-None-Match Spring сразу отвечает 304.
+ * Несущностные части ответа (брони в карточке вещи, отзывы) учитываются по своим id.
+ */
+public final class EntityTag {
+
+    private final MessageDigest digest;
+
+    private EntityTag() {
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String of(UserDto user) {
+        return new EntityTag().add(user).build();
+    }
+
+    public static String ofUsers(Collection<UserDto> users) {
+        EntityTag tag = new EntityTag().add((long) users.size());
+        users.forEach(tag::add);
+        return tag.build();
+    }
+
+    public static String of(ItemDto item) {
+        return new EntityTag().add(item).build();
+    }
+
+    public static String ofItems(Collection<ItemDto> items) {
+        EntityTag tag = new EntityTag().add((long) items.size());
+        items.forEach(tag::add);
+        return tag.build();
+    }
+
+    public static String of(BookingResponseDto booking) {
+        return new EntityTag().add(booking).build();
+    }
+
+    public static String ofBookings(Collection<BookingResponseDto> bookings) {
+        EntityTag tag = new EntityTag().add((long) bookings.size());
+        bookings.forEach(tag::add);
+        return tag.build();
+    }
+
+    public static String of(ItemRequestDto request) {
+        return new EntityTag().add(request).build();
+    }
+
+    public static String ofRequests(Collection<ItemRequestDto> requests) {
+        EntityTag tag = new EntityTag().add((long) requests.size());
+        requests.forEach(tag::add);
+        return tag.build();
+    }
+
+    private EntityTag add(UserDto user) {
+        return add(user.getId()).add(user.getVersion());
+    }
+
+    private EntityTag add(ItemDto item) {
+        add(item.getId()).add(item.getVersion());
+        add(item.getLastBooking()).add(item.getNextBooking());
+        if (item.getComments() == null) {
+            return add((Long) null);
+        }
+        add((long) item.getComments().size());
+        for (CommentDto comment : item.getComments()) {
+            // Имя автора меняется вместе с пользователем, а версии автора в отзыве нет
+            add(comment.getId()).add(comment.getAuthorName());
+        }
+        return this;
+    }
+
+    private EntityTag add(@Nullable BookingItemDto booking) {
+        return booking == null ? add((Long) null) : add(booking.getId()).add(booking.getBookerId());
+    }
+
+    private EntityTag add(BookingResponseDto booking) {
+        add(booking.getId()).add(booking.getVersion());
+        add(booking.getItem() == null ? null : booking.getItem().getId());
+        add(booking.getItem() == null ? null : booking.getItem().getVersion());
+        add(booking.getBooker() == null ? null : booking.getBooker().getId());
+        return add(booking.getBooker() == null ? null : booking.getBooker().getVersion());
+    }
+
+    private EntityTag add(ItemRequestDto request) {
+        add(request.getId()).add(request.getVersion());
+        if (request.getItems() == null) {
+            return add((Long) null);
+        }
+        add((long) request.getItems().size());
+        request.getItems().forEach(this::add);
+        return this;
+    }
+
+    private EntityTag add(@Nullable Long value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return this;
+        }
+        digest.update((byte) 1);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (value >>> shift));
+        }
+        return this;
+    }
+
+    private EntityTag add(@Nullable String value) {
+        if (value == null) {
+            return add((Long) null);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        add((long) bytes.length);
+        digest.update(bytes);
+        return this;
+    }
+
+    private String build() {
+        return "W/\"" + String.format("%032x", new BigInteger(1, digest.digest())) + "\"";
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.EntityTag;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -30,6 +32,14 @@ public class ItemController {
         return itemService.add(id, itemDto);
     }
 
+    // id созданных вещей в порядке переданного массива
+    @PostMapping("/batch")
+    public List<Long> addBatch(@RequestHeader(USER_ID) Long id,
+                               @RequestBody List<ItemDto> itemDtos) {
+        log.info("POST request received to save {} items", itemDtos.size());
+        return itemService.addBatch(id, itemDtos);
+    }
+
     @PatchMapping("{itemId}")
     public ItemDto update(@RequestHeader(USER_ID) Long id,
                           @PathVariable Long itemId,
@@ -40,29 +50,31 @@ public class ItemController {
     }
 
     @GetMapping("{itemId}")
-    public ItemDto getById(@RequestHeader(USER_ID) Long id,
-                           @PathVariable Long itemId) {
+    public ResponseEntity<ItemDto> getById(@RequestHeader(USER_ID) Long id,
+                                           @PathVariable Long itemId) {
         log.info("Get item by id{}", itemId);
-        return itemService.getById(id, itemId);
+        ItemDto item = itemService.getById(id, itemId);
+        return ResponseEntity.ok().eTag(EntityTag.of(item)).body(item);
     }
 
     @GetMapping
-    public Collection<ItemDto> getByUser(@RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size,
-                                         @RequestHeader(USER_ID) Long id) {
+    public ResponseEntity<Collection<ItemDto>> getByUser(@RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestHeader(USER_ID) Long id) {
         log.info("Get items by user id{}", id);
-        return itemService.getByUser(id, from, size);
+        Collection<ItemDto> items = itemService.getByUser(id, from, size);
+        return ResponseEntity.ok().eTag(EntityTag.ofItems(items)).body(items);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getBySearch(@RequestParam(defaultValue = "") String text,
-                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                     @Positive @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<ItemDto>> getBySearch(@RequestParam(defaultValue = "") String text,
+                                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                     @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("search {}", text);
-        if (text == null || text.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        return itemService.getBySearch(text, from, size);
+        List<ItemDto> items = text == null || text.trim().isEmpty()
+                ? Collections.emptyList()
+                : itemService.getBySearch(text, from, size);
+        return ResponseEntity.ok().eTag(EntityTag.ofItems(items)).body(items);
     }
 
     @PostMapping("/{itemId}/comment")
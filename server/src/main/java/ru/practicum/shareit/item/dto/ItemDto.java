@@ -30,5 +30,5 @@ public class ItemDto {
     private BookingItemDto nextBooking;
     private List<CommentDto> comments;
     private Long requestId;
-
-}
\ No newline at end of file
+    private Long version;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import org.mapstruct.Builder;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.factory.Mappers;
@@ -18,8 +19,10 @@ public interface ItemMapper {
 
     ItemDto toItemDto(Item entity);
 
+    @Mapping(target = "version", ignore = true)
     Item toItem(ItemDto dto);
 
+    @Mapping(target = "version", ignore = true)
     Item updateItemByGivenDto(ItemDto dto, @MappingTarget Item entity);
 
     List<ItemDto> toItemDtoList(List<Item> source);
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Поиск по tsvector-колонке items.search_vector (GIN-индекс, PostgreSQL),
+ * результаты упорядочены по ts_rank.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "full-text", matchIfMissing = true)
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return itemRepository.findAvailableItemsByFullText(query, pageable.getPageSize(), pageable.getOffset());
+    }
+
+    // Каждое слово ищется как префикс, слова объединяются через AND: "дрел удар" -> "дрел:* & удар:*"
+    static String toTsQuery(String text) {
+        StringBuilder query = new StringBuilder();
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            if (query.length() > 0) {
+                query.append(" & ");
+            }
+            query.append(matcher.group().toLowerCase(Locale.ROOT)).append(":*");
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,244 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания в памяти процесса.
+ * Совпадает по смыслу с LIKE '%text%' без учета регистра: триграммы запроса
+ * отбирают кандидатов, подстрока проверяется на самом тексте.
+ * Измененная вещь получает новый порядковый номер, старый помечается удаленным,
+ * поэтому списки вхождений только дописываются. Когда удаленных становится больше
+ * половины, индекс пересобирается из живых документов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "in-memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Document> documents = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> ordinalByItemId = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private int dead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            Pageable pageable = PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id"));
+            Page<Item> page;
+            do {
+                page = itemRepository.findAll(pageable);
+                page.forEach(item -> add(new Document(item)));
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+            log.info("Поисковый индекс вещей построен: {} документов, {} триграмм", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = normalize(text);
+        List<Document> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+                    collect(documents.get(ordinal), query, found);
+                }
+            } else {
+                for (int ordinal : candidates(query)) {
+                    if (live.get(ordinal)) {
+                        collect(documents.get(ordinal), query, found);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        found.sort(Comparator.comparing(Document::getId));
+        List<Item> result = new ArrayList<>(Math.min(found.size(), pageable.getPageSize()));
+        long end = Math.min(found.size(), pageable.getOffset() + pageable.getPageSize());
+        for (long i = pageable.getOffset(); i < end; i++) {
+            result.add(copy(found.get((int) i).getItem()));
+        }
+        return result;
+    }
+
+    private int[] candidates(String query) {
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            PostingList list = postings.get(gram(query, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        // Пересечение начинаем с самого короткого списка
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        int[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = PostingList.intersect(result, lists.get(i).toArray());
+        }
+        return result;
+    }
+
+    private void collect(Document document, String query, List<Document> found) {
+        if (document.isAvailable() && document.matches(query)) {
+            found.add(document);
+        }
+    }
+
+    private void put(Item item) {
+        Integer previous = ordinalByItemId.get(item.getId());
+        if (previous != null) {
+            live.clear(previous);
+            dead++;
+        }
+        add(new Document(item));
+        if (dead * 2 > documents.size()) {
+            compact();
+        }
+    }
+
+    private void add(Document document) {
+        int ordinal = documents.size();
+        documents.add(document);
+        live.set(ordinal);
+        ordinalByItemId.put(document.getId(), ordinal);
+        addGrams(document.getName(), ordinal);
+        addGrams(document.getDescription(), ordinal);
+    }
+
+    // Вызывается под блокировкой записи: номера и списки вхождений строятся заново только по живым
+    private void compact() {
+        List<Document> alive = new ArrayList<>(documents.size() - dead);
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            alive.add(documents.get(ordinal));
+        }
+        clear();
+        alive.forEach(this::add);
+        log.debug("Поисковый индекс вещей сжат до {} документов", documents.size());
+    }
+
+    private void clear() {
+        documents.clear();
+        live.clear();
+        ordinalByItemId.clear();
+        postings.clear();
+        dead = 0;
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int postingCount() {
+        lock.readLock().lock();
+        try {
+            return postings.values().stream().mapToInt(PostingList::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addGrams(String text, int ordinal) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), key -> new PostingList()).add(ordinal);
+        }
+    }
+
+    // Три символа UTF-16 упаковываются в один long без создания строк
+    private static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Item copy(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .version(item.getVersion())
+                .build();
+    }
+
+    @Getter
+    private static final class Document {
+
+        // Копия без владельца: индекс не держит ссылок на сущности persistence context
+        private final Item item;
+        private final String name;
+        private final String description;
+
+        Document(Item source) {
+            this.item = copy(source);
+            this.name = normalize(source.getName());
+            this.description = normalize(source.getDescription());
+        }
+
+        Long getId() {
+            return item.getId();
+        }
+
+        boolean isAvailable() {
+            return Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Список возрастающих порядковых номеров документов, сжатый разностями в varint.
+ * Номера добавляются только по возрастанию, поэтому дописывание идет в конец массива.
+ */
+final class PostingList {
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private int last = -1;
+
+    void add(int ordinal) {
+        if (ordinal <= last) {
+            if (ordinal == last) {
+                return;
+            }
+            throw new IllegalArgumentException("Номера документов должны возрастать: " + ordinal + " <= " + last);
+        }
+        int delta = ordinal - last;
+        ensureCapacity(5);
+        while ((delta & ~0x7F) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = ordinal;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int[] toArray() {
+        int[] result = new int[count];
+        int position = 0;
+        int value = -1;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += delta;
+            result[i] = value;
+        }
+        return result;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+
+    static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
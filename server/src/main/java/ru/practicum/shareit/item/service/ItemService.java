@@ -8,6 +8,8 @@ import java.util.List;
 public interface ItemService {
     ItemDto add(Long id, ItemDto itemDto);
 
+    List<Long> addBatch(Long id, List<ItemDto> itemDtos);
+
     ItemDto update(ItemDto itemDto, Long id, Long itemId);
 
     ItemDto getById(Long id, Long itemId);
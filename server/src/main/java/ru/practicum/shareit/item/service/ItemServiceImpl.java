@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -8,6 +9,8 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingView;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.error.EntityNotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -16,19 +19,26 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemDetailView;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
@@ -37,6 +47,9 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final UserExistenceCheck userExistence;
+    private final ItemRequestRepository itemRequestRepository;
 
         @Override
         public ItemDto add(Long id, ItemDto itemDto) {
@@ -46,36 +59,86 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(owner);
 
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
         return ItemMapper.INSTANCE.toItemDto(item);
     }
 
+    // Владелец и запросы проверяются один раз на пакет. Вещи сохраняются в одной транзакции,
+    // INSERT уходят пакетами JDBC по hibernate.jdbc.batch_size
+    @Override
+    public List<Long> addBatch(Long id, List<ItemDto> itemDtos) {
+        userExistence.requireExists(id);
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!requestIds.isEmpty()) {
+            requestIds.removeAll(itemRequestRepository.findExistingIds(requestIds));
+            if (!requestIds.isEmpty()) {
+                throw new EntityNotFoundException("Нет запросов с id: " + requestIds.stream()
+                        .sorted()
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        User owner = userRepository.getReferenceById(id);
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> {
+                    Item item = ItemMapper.INSTANCE.toItem(itemDto);
+                    // Пакет только добавляет: переданные id и версия не должны превратить вставку в merge
+                    item.setId(null);
+                    item.setVersion(null);
+                    item.setOwner(owner);
+                    return item;
+                })
+                .collect(Collectors.toList());
+        items = itemRepository.saveAll(items);
+        items.forEach(itemSearchEngine::index);
+        log.info("Пакетное добавление вещей пользователем id:{}: {}", id, items.size());
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public ItemDto update(ItemDto itemDto, Long id, Long itemId) {
-        User existOwner = findUserById(id);
+        userExistence.requireExists(id);
         Item existItem = findItemById(itemId);
-        if (!existItem.getOwner().getId().equals(existOwner.getId())) {
+        if (!existItem.getOwner().getId().equals(id)) {
             throw new EntityNotFoundException("Не совпадает пользователь");
         }
         Item save = ItemMapper.INSTANCE.updateItemByGivenDto(itemDto, existItem);
         Item result = itemRepository.save(save);
+        itemSearchEngine.index(result);
         log.info("Обновлен лот: {} пользователем id:{}", itemDto, id);
         return ItemMapper.INSTANCE.toItemDto(result);
     }
 
     @Override
     public ItemDto getById(Long id, Long itemId) {
-        User user = findUserById(id);
-        Item item = findItemById(itemId);
+        ItemDetailView detail = itemRepository.findItemDetail(itemId, id, LocalDateTime.now())
+                .orElseThrow(() -> userRepository.existsById(id)
+                        ? new EntityNotFoundException("Нет лота с id: " + itemId)
+                        : new EntityNotFoundException("Нет пользователя с id: " + id));
+        if (!Boolean.TRUE.equals(detail.getUserExists())) {
+            throw new EntityNotFoundException("Нет пользователя с id: " + id);
+        }
         List<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
                 .map(CommentMapper.INSTANCE::toCommentDto)
                 .collect(Collectors.toList());
-        if (Objects.equals(item.getOwner().getId(), user.getId())) {
-            ItemDto itemWithBookings = getItemWithBookings(itemId);
-            itemWithBookings.setComments(comments);
-            return itemWithBookings;
+        ItemDto itemDto = ItemDto.builder()
+                .id(detail.getId())
+                .name(detail.getName())
+                .description(detail.getDescription())
+                .available(detail.getAvailable())
+                .requestId(detail.getRequestId())
+                .version(detail.getVersion())
+                .comments(comments)
+                .build();
+        if (Objects.equals(detail.getOwnerId(), id)) {
+            itemDto.setLastBooking(toBookingItemDto(detail.getLastBookingId(), detail.getLastBookerId()));
+            itemDto.setNextBooking(toBookingItemDto(detail.getNextBookingId(), detail.getNextBookerId()));
         }
-        ItemDto itemDto = ItemMapper.INSTANCE.toItemDto(item);
-        itemDto.setComments(comments);
         return itemDto;
     }
 
@@ -86,21 +149,13 @@ public class ItemServiceImpl implements ItemService {
         if (items.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Booking> lastBookings = bookingRepository.findLastBookingsForOwnerItems(id);
-        List<Booking> nextBookings = bookingRepository.findNextBookingsForOwnerItems(id);
-        if (id != null && userRepository.findById(id).isPresent()) {
-            Map<Long, BookingItemDto> lastBookingsMap = lastBookings.stream()
-                    .collect(Collectors.toMap(
-                            booking -> booking.getItem().getId(),
-                            this::toBookingItemDto,
-                            (existing, replacement) -> existing
-                    ));
-            Map<Long, BookingItemDto> nextBookingsMap = nextBookings.stream()
-                    .collect(Collectors.toMap(
-                            booking -> booking.getItem().getId(),
-                            this::toBookingItemDto,
-                            (existing, replacement) -> existing
-                    ));
+        if (id != null && userExistence.exists(id)) {
+            List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, BookingItemDto> lastBookingsMap = toBookingItemDtoMap(
+                    bookingRepository.findLastBookingsByItemIds(itemIds, now));
+            Map<Long, BookingItemDto> nextBookingsMap = toBookingItemDtoMap(
+                    bookingRepository.findNextBookingsByItemIds(itemIds, now));
             List<CommentDto> comments = commentRepository.findByAuthorId(id).stream()
                     .map(CommentMapper.INSTANCE::toCommentDto)
                     .collect(Collectors.toList());
@@ -124,8 +179,7 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getBySearch(String textQuery, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
 
-        return ItemMapper.INSTANCE.toItemDtoList(itemRepository
-                .findItemsBySearch(textQuery, pageable).getContent().stream().filter(Item::getAvailable).collect(Collectors.toList()));
+        return ItemMapper.INSTANCE.toItemDtoList(itemSearchEngine.search(textQuery, pageable));
     }
 
     @Override
@@ -145,38 +199,16 @@ public class ItemServiceImpl implements ItemService {
     }
 
 
-    private ItemDto getItemWithBookings(Long itemId) {
-        Item item = findItemById(itemId);
-        BookingItemDto lastBookingDto = findPastBookingsByItemId(itemId);
-        BookingItemDto nextBookingDto = findFutureBookingsByItemId(itemId);
-        return ItemDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .lastBooking(lastBookingDto)
-                .nextBooking(nextBookingDto)
-                .build();
-    }
-
-    private BookingItemDto findFutureBookingsByItemId(Long itemId) {
-        return bookingRepository.findFutureBookingsByItemId(itemId)
-                .stream()
-                .map(this::toBookingItemDto)
-                .findFirst()
-                .orElse(null);
-    }
-
-    private BookingItemDto findPastBookingsByItemId(Long itemId) {
-        return bookingRepository.findPastBookingsByItemId(itemId)
-                .stream()
-                .map(this::toBookingItemDto)
-                .findFirst()
-                .orElse(null);
+    private Map<Long, BookingItemDto> toBookingItemDtoMap(List<ItemBookingView> bookings) {
+        Map<Long, BookingItemDto> result = new HashMap<>();
+        for (ItemBookingView booking : bookings) {
+            result.put(booking.getItemId(), new BookingItemDto(booking.getId(), booking.getBookerId()));
+        }
+        return result;
     }
 
-    private BookingItemDto toBookingItemDto(Booking booking) {
-        return new BookingItemDto(booking.getId(), booking.getBooker().getId());
+    private BookingItemDto toBookingItemDto(Long bookingId, Long bookerId) {
+        return bookingId == null ? null : new BookingItemDto(bookingId, bookerId);
     }
 
     private User findUserById(Long userId) {
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.storage;
+
+public interface ItemDetailView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+
+    Long getVersion();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+
+    Boolean getUserExists();
+}
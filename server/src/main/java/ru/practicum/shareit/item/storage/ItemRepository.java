@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findItemsByOwnerIdOrderById(Long id);
@@ -14,16 +17,40 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findItemsByOwnerIdOrderById(Long id, Pageable pageable);
 
     @Query(value = "select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%'))")
-    List<Item> findItemsBySearch(String text);
-
-    @Query(value = "select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%'))")
-    Page<Item> findItemsBySearch(String text, Pageable pageable);
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by i.id")
+    List<Item> findAvailableItemsBySearch(String text, Pageable pageable);
+
+    // Только PostgreSQL: search_vector и GIN-индекс создаются в schema-postgresql.sql
+    @Query(value = "SELECT i.* FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.is_available = true AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Item> findAvailableItemsByFullText(@Param("query") String query,
+                                            @Param("limit") int limit,
+                                            @Param("offset") long offset);
 
     List<Item> findByRequestId(Long requestId);
 
-    List<Item> findByRequestIdIn(List<Long> requestsId);
-}
\ No newline at end of file
+    // Только поля, нужные ItemDto в ответах на запросы; сортировка по requestId для группировки
+    List<RequestItemView> findByRequestIdInOrderByRequestIdAscIdAsc(Collection<Long> requestIds);
+
+    // Карточка вещи одним запросом: последняя и следующая бронь считаются только для владельца
+    @Query(value = "SELECT i.id AS id, i.name AS name, i.description AS description, " +
+            "i.is_available AS available, i.owner_id AS ownerId, i.request_id AS requestId, i.version AS version, " +
+            "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND i.owner_id = :userId " +
+            "AND b.start_date < :now AND b.status <> 'REJECTED' ORDER BY b.end_date DESC LIMIT 1) AS lastBookingId, " +
+            "(SELECT b.booker_id FROM bookings b WHERE b.item_id = i.id AND i.owner_id = :userId " +
+            "AND b.start_date < :now AND b.status <> 'REJECTED' ORDER BY b.end_date DESC LIMIT 1) AS lastBookerId, " +
+            "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND i.owner_id = :userId " +
+            "AND b.start_date > :now AND b.status <> 'REJECTED' ORDER BY b.start_date ASC LIMIT 1) AS nextBookingId, " +
+            "(SELECT b.booker_id FROM bookings b WHERE b.item_id = i.id AND i.owner_id = :userId " +
+            "AND b.start_date > :now AND b.status <> 'REJECTED' ORDER BY b.start_date ASC LIMIT 1) AS nextBookerId, " +
+            "EXISTS (SELECT 1 FROM users u WHERE u.id = :userId) AS userExists " +
+            "FROM items i WHERE i.id = :itemId", nativeQuery = true)
+    Optional<ItemDetailView> findItemDetail(@Param("itemId") Long itemId,
+                                            @Param("userId") Long userId,
+                                            @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.storage;
+
+public interface RequestItemView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getVersion();
+}
@@ -2,8 +2,11 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -29,23 +32,41 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getByRequestId(@RequestHeader(USER_ID) Long requesterId,
-                                  @PathVariable Long requestId) {
+    public ResponseEntity<ItemRequestDto> getByRequestId(@RequestHeader(USER_ID) Long requesterId,
+                                                         @PathVariable Long requestId) {
         log.info("Получен запрос на отправку запроса на вещь с ID " + requestId);
-        return itemRequestService.getByRequestId(requesterId, requestId);
+        ItemRequestDto request = itemRequestService.getByRequestId(requesterId, requestId);
+        return ResponseEntity.ok().eTag(EntityTag.of(request)).body(request);
     }
 
     @GetMapping
-    public List<ItemRequestDto> getByUserId(@RequestHeader(USER_ID) Long userId) {
+    public ResponseEntity<List<ItemRequestDto>> getByUserId(@RequestHeader(USER_ID) Long userId) {
         log.info("Получен запрос на формирование списка запросов для пользователя с ID " + userId);
-        return itemRequestService.getByUserId(userId);
+        List<ItemRequestDto> requests = itemRequestService.getByUserId(userId);
+        return ResponseEntity.ok().eTag(EntityTag.ofRequests(requests)).body(requests);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllPaginated(@RequestHeader(USER_ID) Long requesterId,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<ItemRequestDto>> getAllPaginated(@RequestHeader(USER_ID) Long requesterId,
+                                                                @RequestParam(defaultValue = "0") int from,
+                                                                @RequestParam(defaultValue = "10") int size,
+                                                                @RequestParam(required = false) String after) {
         log.info("Получен запрос на формирование списка всех запросов на вещи для пользователя с ID: " + requesterId);
-        return itemRequestService.getAllPaginated(requesterId, from, size);
+        List<ItemRequestDto> requests = after == null
+                ? itemRequestService.getAllPaginated(requesterId, from, size)
+                : itemRequestService.getAllAfter(requesterId, SeekCursor.decode(after), size);
+        return withNextCursor(requests, size);
+    }
+
+    private ResponseEntity<List<ItemRequestDto>> withNextCursor(List<ItemRequestDto> requests, int size) {
+        String etag = EntityTag.ofRequests(requests);
+        if (requests.isEmpty() || requests.size() < size) {
+            return ResponseEntity.ok().eTag(etag).body(requests);
+        }
+        ItemRequestDto last = requests.get(requests.size() - 1);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(SeekCursor.NEXT_CURSOR_HEADER, new SeekCursor(last.getCreated(), last.getId()).encode())
+                .body(requests);
     }
 }
\ No newline at end of file
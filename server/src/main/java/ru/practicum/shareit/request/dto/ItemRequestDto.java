@@ -24,4 +24,5 @@ public class ItemRequestDto {
     private Long requesterId;
     private LocalDateTime created;
     private List<ItemDto> items = new ArrayList<>();
-}
\ No newline at end of file
+    private Long version;
+}
@@ -14,6 +14,7 @@ public interface ItemRequestMapper {
 
     ItemRequestMapper INSTANCE = Mappers.getMapper(ItemRequestMapper.class);
 
+    @Mapping(target = "version", ignore = true)
     ItemRequest toItemRequest(ItemRequestDto dto);
 
     @AfterMapping
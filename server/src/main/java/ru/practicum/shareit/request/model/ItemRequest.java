@@ -29,4 +29,9 @@ public class ItemRequest {
 
     @Column(name = "created")
     private LocalDateTime created;
-}
\ No newline at end of file
+
+    // Оптимистическая блокировка и ETag ответов
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
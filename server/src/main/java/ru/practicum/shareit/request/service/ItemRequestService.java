@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -12,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getByUserId(Long userId);
 
     List<ItemRequestDto> getAllPaginated(Long requesterId, Integer from, Integer size);
+
+    List<ItemRequestDto> getAllAfter(Long requesterId, SeekCursor after, Integer size);
 }
@@ -1,28 +1,30 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.error.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
@@ -30,6 +32,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCheck userExistence;
 
     @Override
     public ItemRequestDto add(Long requesterId, ItemRequestDto dto) {
@@ -43,7 +46,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getByRequestId(Long requesterId, Long requestId) {
-        findUserById(requesterId);
+        userExistence.requireExists(requesterId);
         ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> new EntityNotFoundException("Нет запроса с id: " + requestId));
         return convertToItemRequestDtoWithItems(List.of(itemRequest)).get(0);
@@ -52,7 +55,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDto> getByUserId(Long userId) {
         log.debug("getRequests method was called in ItemRequestServiceIml ");
-        findUserById(userId);
+        userExistence.requireExists(userId);
         List<ItemRequest> itemRequestList = requestRepository.findItemRequestsByRequesterId(userId);
         return convertToItemRequestDtoWithItems(itemRequestList);
     }
@@ -60,44 +63,37 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDto> getAllPaginated(Long requesterId, Integer from, Integer size) {
         log.debug("getRequestByPagination method was called in ItemRequestServiceIml");
-        findUserById(requesterId);
+        userExistence.requireExists(requesterId);
         Pageable pageable = PageRequest.of(from / size, size);
 
-        List<ItemRequest> itemRequests = requestRepository.findAllWithoutRequesterId(requesterId, pageable).getContent();
+        List<ItemRequest> itemRequests = requestRepository.findAllWithoutRequesterId(requesterId, pageable);
         return convertToItemRequestDtoWithItems(itemRequests);
     }
 
-    private List<ItemRequestDto> convertToItemRequestDtoWithItems(List<ItemRequest> itemRequests) {
+    @Override
+    public List<ItemRequestDto> getAllAfter(Long requesterId, SeekCursor after, Integer size) {
+        userExistence.requireExists(requesterId);
+        List<ItemRequest> itemRequests = requestRepository.findAllWithoutRequesterIdAfter(requesterId,
+                after.getTimestamp(), after.getId(), PageRequest.of(0, size));
+        return convertToItemRequestDtoWithItems(itemRequests);
+    }
 
-        List<Long> requestIds = new ArrayList<>();
+    private List<ItemRequestDto> convertToItemRequestDtoWithItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = new ArrayList<>(itemRequests.size());
         for (ItemRequest itemRequest : itemRequests) {
             requestIds.add(itemRequest.getId());
         }
 
-        Map<Long, List<Item>> itemsForRequests = getItemsForRequests(requestIds);
+        Map<Long, List<ItemDto>> itemsForRequests = RequestItemsGrouping.groupByRequestId(
+                itemRepository.findByRequestIdInOrderByRequestIdAscIdAsc(requestIds));
 
-        List<ItemRequestDto> itemRequestsDto = ItemRequestMapper.INSTANCE.toItemRequestDtoList(itemRequests);
-
-        List<ItemRequestDto> result = new ArrayList<>();
-
-        for (ItemRequestDto itemRequestDto : itemRequestsDto) {
-            List<ItemDto> itemDtoList = itemsForRequests.get(itemRequestDto.getId()).stream()
-                    .map(ItemMapper.INSTANCE::toItemDto)
-                    .collect(Collectors.toList());
-            itemRequestDto.setItems(itemDtoList);
-            result.add(itemRequestDto);
+        List<ItemRequestDto> result = ItemRequestMapper.INSTANCE.toItemRequestDtoList(itemRequests);
+        for (ItemRequestDto itemRequestDto : result) {
+            itemRequestDto.setItems(itemsForRequests.getOrDefault(itemRequestDto.getId(), List.of()));
         }
-
-        return result;
-    }
-
-    private Map<Long, List<Item>> getItemsForRequests(List<Long> requests) {
-        List<Item> items = itemRepository.findByRequestIdIn(requests);
-        Map<Long, List<Item>> result = items.stream().collect(Collectors.toMap(Item::getRequestId, List::of));
-        for (Long request : requests)
-            if (!result.containsKey(request)) {
-                result.put(request, new ArrayList<>());
-            }
         return result;
     }
 
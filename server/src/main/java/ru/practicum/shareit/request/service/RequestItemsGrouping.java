@@ -0,0 +1,49 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.storage.RequestItemView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Раскладывает ответы на запросы по id запроса. Вход отсортирован по requestId,
+ * поэтому ответы одного запроса идут подряд и список создается сразу нужного размера.
+ */
+public final class RequestItemsGrouping {
+
+    private RequestItemsGrouping() {
+    }
+
+    public static Map<Long, List<ItemDto>> groupByRequestId(List<RequestItemView> items) {
+        Map<Long, List<ItemDto>> result = new HashMap<>();
+        int start = 0;
+        while (start < items.size()) {
+            Long requestId = items.get(start).getRequestId();
+            int end = start + 1;
+            while (end < items.size() && requestId.equals(items.get(end).getRequestId())) {
+                end++;
+            }
+            List<ItemDto> group = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                group.add(toItemDto(items.get(i)));
+            }
+            result.put(requestId, group);
+            start = end;
+        }
+        return result;
+    }
+
+    private static ItemDto toItemDto(RequestItemView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .version(item.getVersion())
+                .build();
+    }
+}
@@ -1,18 +1,32 @@
 package ru.practicum.shareit.request.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findItemRequestsByRequesterId(Long requesterId);
 
-    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :requesterId")
-    Page<ItemRequest> findAllWithoutRequesterId(@Param("requesterId") Long requesterId, Pageable pageable);
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Новые сверху; (created, id) однозначно задает порядок и совпадает с индексом idx_requests_created_id
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :requesterId ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllWithoutRequesterId(@Param("requesterId") Long requesterId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :requesterId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllWithoutRequesterIdAfter(@Param("requesterId") Long requesterId,
+                                                     @Param("created") LocalDateTime created,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
 }
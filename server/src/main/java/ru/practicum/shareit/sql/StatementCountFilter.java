@@ -0,0 +1,116 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Число SQL-выражений на HTTP-запрос: заголовок ответа X-Query-Count, метрика shareit.sql.statements
+ * с тегами method и uri и предупреждение в лог с формами выражений, если их больше порога.
+ * Заголовок ставится перед записью тела, метрика и лог учитывают и ленивые загрузки при сериализации.
+ * Считаются только выражения потока запроса: выгрузка StreamingResponseBody идет в другом потоке.
+ */
+@Slf4j
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+    public static final String METRIC = "shareit.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public StatementCountFilter(MeterRegistry meterRegistry, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.Statements statements = StatementCounter.start();
+        CountingResponse countingResponse = new CountingResponse(response, statements);
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            StatementCounter.stop();
+        }
+        countingResponse.setCountHeader();
+        record(request, statements);
+    }
+
+    private void record(HttpServletRequest request, StatementCounter.Statements statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder(METRIC)
+                .description("SQL-выражения на HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getCount());
+        if (statements.getCount() > warnThreshold) {
+            String query = request.getQueryString() == null ? "" : "?" + request.getQueryString();
+            log.warn("{} {}{}: {} SQL-выражений при пороге {}, возможен N+1. Выражения:\n{}", request.getMethod(),
+                    request.getRequestURI(), query, statements.getCount(), warnThreshold, statements.describe());
+        }
+    }
+
+    // Заголовки нельзя менять после начала записи тела, поэтому счетчик ставится при первом обращении к нему
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private final StatementCounter.Statements statements;
+        private boolean headerSet;
+
+        CountingResponse(HttpServletResponse response, StatementCounter.Statements statements) {
+            super(response);
+            this.statements = statements;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setCountHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setCountHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setCountHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            setCountHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            setCountHeader();
+            super.sendError(sc);
+        }
+
+        void setCountHeader() {
+            if (!headerSet && !isCommitted()) {
+                setHeader(HEADER, String.valueOf(statements.getCount()));
+                headerSet = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Считает SQL-выражения, которые Hibernate подготавливает в текущем потоке между start и stop.
+ * Подключается свойством {@code hibernate.session_factory.statement_inspector}, вне start/stop ничего не делает.
+ * Текст выражения с параметрами-плейсхолдерами и есть его форма: N+1 виден как один и тот же SQL много раз.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Statements> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Statements statements = CURRENT.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static Statements start() {
+        Statements statements = new Statements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public static class Statements {
+
+        // Больше разных форм для отчета не нужно, а память на запрос ограничена
+        private static final int MAX_SHAPES = 100;
+
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private volatile int count;
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Формы выражений с числом повторов, самые частые первыми.
+         */
+        public String describe() {
+            return shapes.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .map(shape -> shape.getValue() + " x " + shape.getKey())
+                    .collect(Collectors.joining("\n"));
+        }
+
+        private void add(String sql) {
+            count++;
+            String shape = sql.replaceAll("\\s+", " ").trim();
+            if (shapes.containsKey(shape) || shapes.size() < MAX_SHAPES) {
+                shapes.merge(shape, 1, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Вложенные спаны слоев: методы @RestController, @Service и репозиториев Spring Data.
+ * Имя спана - Класс.метод, слой в атрибуте shareit.layer. Вне трассы (прогрев индексов при старте)
+ * спаны не создаются.
+ */
+@Aspect
+public class TracingAspect {
+
+    static final AttributeKey<String> LAYER = AttributeKey.stringKey("shareit.layer");
+    private static final AttributeKey<String> CODE_NAMESPACE = AttributeKey.stringKey("code.namespace");
+    private static final AttributeKey<String> CODE_FUNCTION = AttributeKey.stringKey("code.function");
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller", AopUtils.getTargetClass(joinPoint.getTarget()));
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service", AopUtils.getTargetClass(joinPoint.getTarget()));
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository", repositoryInterface(joinPoint.getTarget()));
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer, Class<?> type) throws Throwable {
+        if (!Span.current().getSpanContext().isValid()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getName();
+        Span span = tracer.spanBuilder(type.getSimpleName() + "." + method)
+                .setAttribute(LAYER, layer)
+                .setAttribute(CODE_NAMESPACE, type.getName())
+                .setAttribute(CODE_FUNCTION, method)
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    // Репозиторий Spring Data - прокси, его интерфейс из приложения и дает понятное имя
+    private static Class<?> repositoryInterface(Object repository) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClass(repository.getClass())) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework")) {
+                return type;
+            }
+        }
+        return repository.getClass();
+    }
+}
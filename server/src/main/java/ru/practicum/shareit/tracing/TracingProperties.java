@@ -0,0 +1,25 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Трассировка OpenTelemetry. exporter=otlp выгружает спаны по OTLP/HTTP в endpoint, exporter=none
+ * не подключает экспортер. Без exporter спаны выгружаются, только если задан endpoint.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.tracing")
+public class TracingProperties {
+
+    private String serviceName = "shareit-server";
+    private String exporter;
+    private String endpoint;
+    // Доля трасс, начатых здесь. Для входящих с traceparent решение принимает вызывающая сторона
+    private double samplingRatio = 1.0;
+
+    public boolean isOtlpEnabled() {
+        return exporter == null ? endpoint != null : "otlp".equals(exporter);
+    }
+}
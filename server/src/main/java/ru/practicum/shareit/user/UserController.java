@@ -2,14 +2,24 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -22,15 +32,36 @@ public class UserController {
         return userServiceImpl.add(user);
     }
 
+    // Массив читается потоком, ошибки по отдельным строкам возвращаются в ответе
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public UserBatchResultDto addBatch(InputStream users) {
+        log.info("Add users batch");
+        return userServiceImpl.addBatch(users);
+    }
+
+    // Без size возвращаются все пользователи начиная с from
     @GetMapping
-    public List<UserDto> getAll() {  //    получение списка всех пользователей.
-        return userServiceImpl.getAll();
+    public ResponseEntity<List<UserDto>> getAll(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                @Positive @RequestParam(required = false) Integer size) {
+        List<UserDto> users = size != null ? userServiceImpl.getAll(from, size) : userServiceImpl.getAll(from);
+        return ResponseEntity.ok().eTag(EntityTag.ofUsers(users)).body(users);
+    }
+
+    // Accept: application/x-ndjson - выгрузка потоком, по пользователю в строке, без сборки списка в памяти
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                        @Positive @RequestParam(required = false) Integer size) {
+        log.info("Export users from{} size{}", from, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> userServiceImpl.export(from, size, out));
     }
 
     @GetMapping("{id}")
-    public UserDto getById(@PathVariable Long id) {
+    public ResponseEntity<UserDto> getById(@PathVariable Long id) {
         log.info("Get user id{}", id);
-        return userServiceImpl.getById(id);
+        UserDto user = userServiceImpl.getById(id);
+        return ResponseEntity.ok().eTag(EntityTag.of(user)).body(user);
     }
 
 
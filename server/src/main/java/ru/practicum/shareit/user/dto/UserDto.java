@@ -21,4 +21,5 @@ public class UserDto {
     @Email
     @NotBlank
     private String email;
+    private Long version;
 }
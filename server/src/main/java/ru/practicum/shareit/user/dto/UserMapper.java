@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.dto;
 
 import org.mapstruct.Builder;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.factory.Mappers;
@@ -16,7 +17,9 @@ public interface UserMapper {
 
     UserDto toUserDto(User source);
 
+    @Mapping(target = "version", ignore = true)
     User toUser(UserDto dto);
 
+    @Mapping(target = "version", ignore = true)
     User updateUserByGivenDto(UserDto source, @MappingTarget User target);
 }
\ No newline at end of file
@@ -5,11 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 import javax.validation.constraints.Email;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @Data
 @Builder
@@ -17,8 +21,10 @@ import javax.validation.constraints.Email;
 @AllArgsConstructor
 public class User {
 
+    // IDENTITY отключает пакетную вставку в Hibernate; шаг 50 совпадает с hibernate.jdbc.batch_size
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
@@ -27,4 +33,9 @@ public class User {
     @Email
     @Column(name = "email")
     private String email;
-}
\ No newline at end of file
+
+    // Оптимистическая блокировка и ETag ответов
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.error.EntityNotFoundException;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Проверка существования пользователя там, где сама сущность не нужна.
+ * Подтвержденные id хранятся в памяти, при промахе выполняется existsById без загрузки сущности.
+ * Пользователи удаляются только через UserServiceImpl.delete, который после коммита убирает id
+ * из набора и оставляет метку удаления: ответ existsById, прочитанный до коммита, не попадет в набор.
+ */
+@Component
+public class UserExistenceCheck {
+
+    private static final long MAX_SIZE = 100_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration DELETED_TTL = Duration.ofMinutes(1);
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> knownIds;
+    private final Cache<Long, Boolean> deletedIds;
+
+    public UserExistenceCheck(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.knownIds = Caffeine.newBuilder()
+                .maximumSize(MAX_SIZE)
+                .expireAfterWrite(TTL)
+                .recordStats()
+                .build();
+        this.deletedIds = Caffeine.newBuilder()
+                .maximumSize(MAX_SIZE)
+                .expireAfterWrite(DELETED_TTL)
+                .build();
+        // Попадания и промахи: /actuator/metrics/cache.gets?tag=cache:users.exists
+        CaffeineCacheMetrics.monitor(meterRegistry, knownIds, "users.exists");
+    }
+
+    public boolean exists(Long userId) {
+        if (knownIds.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            knownIds.put(userId, Boolean.TRUE);
+            // forget ставит метку до удаления из набора, поэтому проверка после put не пропустит удаление
+            if (deletedIds.getIfPresent(userId) != null) {
+                knownIds.invalidate(userId);
+            }
+        }
+        return exists;
+    }
+
+    public void requireExists(Long userId) {
+        if (!exists(userId)) {
+            throw new EntityNotFoundException("Нет пользователя с id: " + userId);
+        }
+    }
+
+    public void forget(Long userId) {
+        deletedIds.put(userId, Boolean.TRUE);
+        knownIds.invalidate(userId);
+    }
+}
@@ -1,13 +1,21 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
     UserDto add(UserDto userDto);
 
-    List<UserDto> getAll();
+    List<UserDto> getAll(int from);
+
+    List<UserDto> getAll(int from, int size);
+
+    long export(int from, Integer size, OutputStream out) throws IOException;
 
     UserDto getById(Long id);
 
@@ -15,4 +23,6 @@ public interface UserService {
 
     void delete(Long id);
 
+    UserBatchResultDto addBatch(InputStream json);
+
 }
@@ -1,23 +1,66 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.error.EntityNotFoundException;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.user.dto.UserBatchErrorDto;
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    // Совпадает с hibernate.jdbc.batch_size и шагом users_seq: пачка уходит одним пакетом INSERT
+    static final int BATCH_SIZE = 50;
+    private static final String EMAIL_TAKEN = "Пользователь с таким email уже существует";
+    // Совпадает с fetch size курсора UserRepository.streamAll
+    private static final int EXPORT_FLUSH_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final UserExistenceCheck userExistence;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
 
     @Override
     public UserDto add(UserDto userDto) {
@@ -28,12 +71,46 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAll() {
-        return userRepository.findAll().stream()
+    public List<UserDto> getAll(int from) {
+        return userRepository.findAllFrom(from).stream()
+                .map(UserMapper.INSTANCE::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<UserDto> getAll(int from, int size) {
+        return userRepository.findAllBy(PageRequest.of(from / size, size, Sort.by("id"))).stream()
                 .map(UserMapper.INSTANCE::toUserDto)
                 .collect(Collectors.toList());
     }
 
+    // Пользователи пишутся в out построчно (NDJSON) по мере чтения курсора. Прочитанная сущность сразу
+    // отсоединяется, поэтому память не зависит от размера таблицы. Курсор живет только внутри транзакции
+    @Override
+    @Transactional(readOnly = true)
+    public long export(int from, Integer size, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (Stream<User> users = size != null
+                ? userRepository.streamAll(PageRequest.of(from / size, size))
+                : userRepository.streamAllFrom(from);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (User user : (Iterable<User>) users::iterator) {
+                writer.writeValue(generator, UserMapper.INSTANCE.toUserDto(user));
+                generator.writeRaw('\n');
+                entityManager.detach(user);
+                if (++count % EXPORT_FLUSH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        log.info("Выгрузка пользователей: {}", count);
+        return count;
+    }
+
     @Override
     public UserDto getById(Long id) {
         return UserMapper.INSTANCE.toUserDto(userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Нет пользователя c id:" + id)));
@@ -52,7 +129,113 @@ public class UserServiceImpl implements UserService {
     public void delete(Long id) {
         log.info("Удаление пользователя c id: {}", id);
         userRepository.deleteById(id);
+        // deleteById коммитит свою транзакцию, метка удаления ставится уже после коммита
+        userExistence.forget(id);
     }
-}
 
+    @Override
+    public UserBatchResultDto addBatch(InputStream json) {
+        UserBatchResultDto result = new UserBatchResultDto(0, new ArrayList<>());
+        List<BatchRow> chunk = new ArrayList<>(BATCH_SIZE);
+        int index = 0;
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Ожидается массив пользователей");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Массив пользователей не закрыт");
+                }
+                UserDto userDto = readRow(objectMapper.readTree(parser), index, result);
+                if (userDto != null) {
+                    chunk.add(new BatchRow(index, userDto));
+                }
+                if (chunk.size() == BATCH_SIZE) {
+                    saveChunk(chunk, result);
+                    chunk.clear();
+                }
+                index++;
+            }
+        } catch (JsonProcessingException e) {
+            // Строки до ошибки уже прочитаны и сохраняются, дальше массив не разбирается
+            addError(result, index, null, "Некорректный JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        saveChunk(chunk, result);
+        // Ошибки разбора находятся сразу, занятые email - при сохранении пачки
+        result.getErrors().sort(Comparator.comparingInt(UserBatchErrorDto::getIndex));
+        log.info("Пакетное добавление пользователей: добавлено {}, ошибок {}",
+                result.getCreated(), result.getErrors().size());
+        return result;
+    }
+
+    private UserDto readRow(JsonNode node, int index, UserBatchResultDto result) {
+        if (!node.isObject()) {
+            addError(result, index, null, "Ожидается объект пользователя");
+            return null;
+        }
+        UserDto userDto;
+        try {
+            userDto = objectMapper.treeToValue(node, UserDto.class);
+        } catch (JsonProcessingException e) {
+            addError(result, index, node.path("email").asText(null), "Некорректные поля: " + e.getOriginalMessage());
+            return null;
+        }
+        // Пакет только добавляет: переданный id не должен превратить вставку в обновление
+        userDto.setId(null);
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(userDto);
+        if (!violations.isEmpty()) {
+            addError(result, index, userDto.getEmail(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return userDto;
+    }
+
+    private void saveChunk(List<BatchRow> chunk, UserBatchResultDto result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Один запрос на пачку вместо проверки каждого email; повтор внутри пачки отсекается тем же набором
+        Set<String> taken = new HashSet<>(userRepository.findExistingEmails(chunk.stream()
+                .map(row -> row.getUser().getEmail())
+                .collect(Collectors.toSet())));
+        List<BatchRow> accepted = new ArrayList<>(chunk.size());
+        for (BatchRow row : chunk) {
+            if (taken.add(row.getUser().getEmail())) {
+                accepted.add(row);
+            } else {
+                addError(result, row.getIndex(), row.getUser().getEmail(), EMAIL_TAKEN);
+            }
+        }
+        try {
+            userRepository.saveAll(accepted.stream()
+                    .map(row -> UserMapper.INSTANCE.toUser(row.getUser()))
+                    .collect(Collectors.toList()));
+            result.setCreated(result.getCreated() + accepted.size());
+        } catch (DataIntegrityViolationException e) {
+            // Email заняли параллельно: пачка откатилась целиком, строки сохраняются по одной
+            for (BatchRow row : accepted) {
+                try {
+                    userRepository.save(UserMapper.INSTANCE.toUser(row.getUser()));
+                    result.setCreated(result.getCreated() + 1);
+                } catch (DataIntegrityViolationException rowException) {
+                    addError(result, row.getIndex(), row.getUser().getEmail(), EMAIL_TAKEN);
+                }
+            }
+        }
+    }
+
+    private static void addError(UserBatchResultDto result, int index, String email, String message) {
+        result.getErrors().add(new UserBatchErrorDto(index, email, message));
+    }
 
+    @Value
+    private static class BatchRow {
+        int index;
+        UserDto user;
+    }
+}
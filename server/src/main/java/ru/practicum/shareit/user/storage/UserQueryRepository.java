@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.storage;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface UserQueryRepository {
+
+    List<User> findAllFrom(int from);
+
+    Stream<User> streamAllFrom(int from);
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.user.storage;
+
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/**
+ * Все пользователи начиная со смещения from, без ограничения количества.
+ * Pageable так не умеет: смещение в нем кратно размеру страницы.
+ */
+public class UserQueryRepositoryImpl implements UserQueryRepository {
+
+    private static final String ALL_USERS = "SELECT u FROM User u ORDER BY u.id";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<User> findAllFrom(int from) {
+        return em.createQuery(ALL_USERS, User.class)
+                .setFirstResult(from)
+                .getResultList();
+    }
+
+    // Подсказки те же, что у UserRepository.streamAll
+    @Override
+    public Stream<User> streamAllFrom(int from) {
+        TypedQuery<User> query = em.createQuery(ALL_USERS, User.class)
+                .setFirstResult(from)
+                .setHint(HINT_FETCH_SIZE, 500)
+                .setHint(HINT_READONLY, true)
+                .setHint(HINT_CACHE_MODE, "IGNORE");
+        return query.getResultStream();
+    }
+}
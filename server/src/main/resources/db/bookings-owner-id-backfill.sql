@@ -0,0 +1,17 @@
+-- Разовая миграция для существующей базы: денормализованный owner_id в bookings.
+-- schema.sql пересоздает таблицы при старте, поэтому на рабочей базе скрипт выполняется вручную.
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE bookings b
+SET owner_id = i.owner_id
+FROM items i
+WHERE i.id = b.item_id
+  AND b.owner_id IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date);
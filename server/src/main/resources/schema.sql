@@ -1,10 +1,17 @@
 DROP TABLE IF EXISTS requests, comments, bookings, items, users CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+
+-- id пользователей и вещей выделяются блоками по 50 для пакетной вставки
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
-    name  VARCHAR(64)                             NOT NULL,
-    email VARCHAR(64)                             NOT NULL,
+    id      BIGINT                                  NOT NULL,
+    name    VARCHAR(64)                             NOT NULL,
+    email   VARCHAR(64)                             NOT NULL,
+    version BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
@@ -15,18 +22,20 @@ CREATE TABLE IF NOT EXISTS requests
     description  VARCHAR(1000)                           NOT NULL,
     requester_id BIGINT                                  NOT NULL,
     created      TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    version      BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_request PRIMARY KEY (id),
     CONSTRAINT fk_request_requester FOREIGN KEY (requester_id) REFERENCES users (id)
 );
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     name         VARCHAR(64)                             NOT NULL,
     description  VARCHAR(1000)                           NOT NULL,
     is_available BOOLEAN                                 NOT NULL,
     owner_id     BIGINT                                  NOT NULL,
     request_id   BIGINT,
+    version      BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests (id)
@@ -40,9 +49,12 @@ CREATE TABLE IF NOT EXISTS bookings
     item_id    BIGINT                                  NOT NULL,
     booker_id  BIGINT                                  NOT NULL,
     status     VARCHAR(64)                             NOT NULL,
+    owner_id   BIGINT                                  NOT NULL,
+    version    BIGINT DEFAULT 0                        NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (id),
-    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id)
+    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id),
+    CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (id)
 );
 
 CREATE TABLE IF NOT EXISTS comments
@@ -55,4 +67,10 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
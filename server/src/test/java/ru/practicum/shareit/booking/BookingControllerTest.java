@@ -9,11 +9,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.ErrorHandler;
+import ru.practicum.shareit.pagination.SeekCursor;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -23,6 +27,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -139,4 +144,53 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(responseDto.getId()));
     }
+
+    @Test
+    void testGetBookingByBookerIdWithCursorThenReturnNextCursorForFullPage() throws Exception {
+        BookingResponseDto responseDto = BookingResponseDto.builder()
+                .id(3L)
+                .start(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .end(LocalDateTime.of(2024, 1, 2, 10, 0))
+                .build();
+        SeekCursor cursor = new SeekCursor(LocalDateTime.of(2024, 2, 1, 10, 0), 7L);
+
+        when(bookingService.getByBookerIdAfter(eq(1L), eq("ALL"), eq(cursor), eq(1)))
+                .thenReturn(List.of(responseDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header(BookingController.USER_ID, 1L)
+                        .param("size", "1")
+                        .param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(responseDto.getId()))
+                .andExpect(header().string(SeekCursor.NEXT_CURSOR_HEADER,
+                        new SeekCursor(responseDto.getStart(), responseDto.getId()).encode()));
+    }
+
+    @Test
+    void testGetBookingByOwnerIdWithMalformedCursorThenReturnBadRequest() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(bookingController)
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(BookingController.USER_ID, 1L)
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUpdateBookingWhenChangedConcurrentlyThenReturnConflict() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(bookingController)
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+        when(bookingService.update(eq(1L), eq(1L), eq(true)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        mockMvc.perform(patch("/bookings/1")
+                        .header(BookingController.USER_ID, 1L)
+                        .param("approved", "true"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").isNotEmpty());
+    }
 }
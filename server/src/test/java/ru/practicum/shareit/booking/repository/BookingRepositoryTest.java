@@ -1,22 +1,27 @@
 package ru.practicum.shareit.booking.repository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.annotation.Import;
 
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
+@Import(SimpleMeterRegistry.class)
 public class BookingRepositoryTest {
 
     @Autowired
@@ -36,6 +42,12 @@ public class BookingRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager em;
+
     Booking booking = new Booking();
     Item item = new Item();
     User user = new User();
@@ -69,6 +81,13 @@ public class BookingRepositoryTest {
         assertEquals(savedBooking.getId(), booking.getId());
     }
 
+    @Test
+    void testOwnerIdIsFilledFromItemOwnerOnInsert() {
+        Booking savedBooking = bookingRepository.findById(booking.getId()).orElseThrow();
+
+        assertEquals(user.getId(), savedBooking.getOwnerId());
+    }
+
     @Test
     void testFindBookingByIdWithItemAndBookerEagerly() {
         Booking foundBooking = bookingRepository.findBookingByIdWithItemAndBookerEagerly(booking.getId());
@@ -79,333 +98,200 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void testFindAllByGivenUserId() {
-        List<Booking> foundBookings = bookingRepository.findAllByGivenUserId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem()).isEqualTo(item);
-        assertThat(foundBookings.get(0).getBooker()).isEqualTo(user);
-        assertThat(foundBookings.get(0).getId()).isEqualTo(booking.getId());
-    }
+    void testFindLastBookingsByItemIdsReturnsLatestFinishedBookingPerItem() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking older = new Booking(null, now.minusDays(5), now.minusDays(4), item, user, BookingStatus.APPROVED, user.getId(), null);
+        Booking latest = new Booking(null, now.minusDays(3), now.minusDays(2), item, user, BookingStatus.APPROVED, user.getId(), null);
+        bookingRepository.save(older);
+        bookingRepository.save(latest);
+        Item otherItem = itemRepository.save(new Item(null, "Other Item", "Other", true, user, null, null));
 
-    @Test
-    void testFindAllByGivenUserIdWithPageable() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findAllByGivenUserId(user.getId(), pageable);
+        List<ItemBookingView> foundBookings = bookingRepository.findLastBookingsByItemIds(
+                List.of(item.getId(), otherItem.getId()), now);
 
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getId()).isEqualTo(booking.getId());
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(latest.getId());
+        assertThat(foundBookings.get(0).getItemId()).isEqualTo(item.getId());
+        assertThat(foundBookings.get(0).getBookerId()).isEqualTo(user.getId());
     }
 
     @Test
-    void testFindCurrentBookingsByBookerId() {
+    void testFindNextBookingsByItemIdsReturnsNearestFutureBookingPerItem() {
         LocalDateTime now = LocalDateTime.now();
-        Booking currentBooking = new Booking(null, now.minusHours(1), now.plusHours(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(currentBooking);
-
-        List<Booking> foundBookings = bookingRepository.findCurrentBookingsByBookerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getId()).isEqualTo(currentBooking.getId());
-    }
+        Booking later = new Booking(null, now.plusDays(4), now.plusDays(5), item, user, BookingStatus.APPROVED, user.getId(), null);
+        Booking nearest = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED, user.getId(), null);
+        bookingRepository.save(later);
+        bookingRepository.save(nearest);
+        Item otherItem = itemRepository.save(new Item(null, "Other Item", "Other", true, user, null, null));
+        Booking otherNext = new Booking(null, now.plusDays(3), now.plusDays(4), otherItem, user, BookingStatus.WAITING, user.getId(), null);
+        bookingRepository.save(otherNext);
 
-    @Test
-    void testFindCurrentBookingsByBookerIdByPageable() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findCurrentBookingsByBookerId(user.getId(), pageable);
+        List<ItemBookingView> foundBookings = bookingRepository.findNextBookingsByItemIds(List.of(item.getId()), now);
 
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getId()).isEqualTo(booking.getId());
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(nearest.getId());
+        assertThat(foundBookings.get(0).getItemId()).isEqualTo(item.getId());
     }
 
     @Test
-    void testFindPastBookingsByBookerId() {
+    void testFindFinishedBookingsByItemAndUser() {
         LocalDateTime now = LocalDateTime.now();
-        Booking pastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(pastBooking);
+        Booking finishedBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED, user.getId(), null);
+        bookingRepository.save(finishedBooking);
 
-        List<Booking> foundBookings = bookingRepository.findPastBookingsByBookerId(user.getId());
+        List<Booking> foundBookings = bookingRepository.findFinishedBookingsByItemAndUser(item.getId(), user.getId());
 
         assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getId()).isEqualTo(pastBooking.getId());
+        assertThat(foundBookings.get(0).getItem().getId()).isEqualTo(item.getId());
+        assertThat(foundBookings.get(0).getBooker().getId()).isEqualTo(user.getId());
     }
 
     @Test
-    void testFindPastBookingsByBookerIdByPageable() {
-        Pageable pageable = PageRequest.of(0, 10);
+    void testFindBookingsForBookerWithAllStateReturnsNewestFirst() {
         LocalDateTime now = LocalDateTime.now();
-        Booking pastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
+        Booking pastBooking = new Booking(null, now.minusDays(3), now.minusDays(2), item, user, BookingStatus.APPROVED, user.getId(), null);
         bookingRepository.save(pastBooking);
-        Page<Booking> foundBookingsPage = bookingRepository.findPastBookingsByBookerId(user.getId(), pageable);
 
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getId()).isEqualTo(pastBooking.getId());
-    }
-
-    @Test
-    void testFindFutureBookingsByBookerId() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking futureBooking = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(futureBooking);
+        List<Booking> foundBookings = bookingRepository.findBookings(query(BookingRole.BOOKER, BookingState.ALL));
 
-        List<Booking> foundBookings = bookingRepository.findFutureBookingsByBookerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getId()).isEqualTo(futureBooking.getId());
+        assertThat(foundBookings.size()).isEqualTo(2);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(booking.getId());
+        assertThat(foundBookings.get(1).getId()).isEqualTo(pastBooking.getId());
+        assertThat(foundBookings.get(0).getItem()).isEqualTo(item);
+        assertThat(foundBookings.get(0).getBooker()).isEqualTo(user);
     }
 
     @Test
-    void testFindFutureBookingsByBookerIdByPageable() {
-        Pageable pageable = PageRequest.of(0, 10);
+    void testFindBookingsForBookerWithCurrentState() {
         LocalDateTime now = LocalDateTime.now();
-        Booking futureBooking = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED);
+        Booking futureBooking = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED, user.getId(), null);
         bookingRepository.save(futureBooking);
-        Page<Booking> foundBookingsPage = bookingRepository.findFutureBookingsByBookerId(user.getId(), pageable);
-
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getId()).isEqualTo(futureBooking.getId());
-    }
-
-    @Test
-    void testFindWaitingBookingsByBookerId() {
-        Booking waitingBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.WAITING);
-        bookingRepository.save(waitingBooking);
-
-        List<Booking> foundBookings = bookingRepository.findWaitingBookingsByBookerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getStatus()).isEqualTo(BookingStatus.WAITING);
-    }
-
-    @Test
-    void testFindWaitingBookingsByBookerIdByPageable() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Booking waitingBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.WAITING);
-        bookingRepository.save(waitingBooking);
-        Page<Booking> foundBookingsPage = bookingRepository.findWaitingBookingsByBookerId(user.getId(), pageable);
-
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getStatus()).isEqualTo(BookingStatus.WAITING);
-    }
-
-    @Test
-    void testFindRejectedBookingsByBookerId() {
-        Booking rejectedBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.REJECTED);
-        bookingRepository.save(rejectedBooking);
-
-        List<Booking> foundBookings = bookingRepository.findRejectedBookingsByBookerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getStatus()).isEqualTo(BookingStatus.REJECTED);
-    }
-
-    @Test
-    void testFindRejectedBookingsByBookerIdByPageable() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Booking rejectedBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.REJECTED);
-        bookingRepository.save(rejectedBooking);
-        Page<Booking> foundBookingsPage = bookingRepository.findRejectedBookingsByBookerId(user.getId(), pageable);
 
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getStatus()).isEqualTo(BookingStatus.REJECTED);
-    }
+        List<Booking> foundBookings = bookingRepository.findBookings(query(BookingRole.BOOKER, BookingState.CURRENT));
 
-    @Test
-    void testFindAllBookingsByOwnerId() {
-        List<Booking> foundBookings = bookingRepository.findAllBookingsByOwnerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getOwner()).isEqualTo(user);
-    }
-
-    @Test
-    void testFindAllBookingsByOwnerIdByPageable() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findAllBookingsByOwnerId(user.getId(), pageable);
-
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getItem().getOwner()).isEqualTo(user);
-    }
-
-    @Test
-    void testFindCurrentBookingsByOwnerId() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking currentBooking = new Booking(null, now.minusHours(1), now.plusHours(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(currentBooking);
-
-        List<Booking> foundBookings = bookingRepository.findCurrentBookingsByOwnerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getOwner()).isEqualTo(user);
-    }
-
-    @Test
-    void testFindCurrentBookingsByOwnerIdByPageable() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking currentBooking = new Booking(null, now.minusHours(1), now.plusHours(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(currentBooking);
-
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findCurrentBookingsByOwnerId(user.getId(), pageable);
-
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getItem().getOwner()).isEqualTo(user);
-    }
-
-    @Test
-    void testFindPastBookingsByOwnerId() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking pastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(pastBooking);
-
-        List<Booking> foundBookings = bookingRepository.findPastBookingsByOwnerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getOwner()).isEqualTo(user);
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(booking.getId());
     }
 
     @Test
-    void testFindPastBookingsByOwnerIdByPageable() {
+    void testFindBookingsForBookerWithPastState() {
         LocalDateTime now = LocalDateTime.now();
-        Booking pastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
+        Booking pastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED, user.getId(), null);
         bookingRepository.save(pastBooking);
 
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findPastBookingsByOwnerId(user.getId(), pageable);
+        List<Booking> foundBookings = bookingRepository.findBookings(query(BookingRole.BOOKER, BookingState.PAST));
 
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getItem().getOwner()).isEqualTo(user);
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(pastBooking.getId());
     }
 
     @Test
-    void testFindFutureBookingsByOwnerId() {
+    void testFindBookingsForBookerWithFutureState() {
         LocalDateTime now = LocalDateTime.now();
-        Booking futureBooking = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED);
+        Booking futureBooking = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED, user.getId(), null);
         bookingRepository.save(futureBooking);
 
-        List<Booking> foundBookings = bookingRepository.findFutureBookingsByOwnerId(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getOwner()).isEqualTo(user);
-    }
+        List<Booking> foundBookings = bookingRepository.findBookings(query(BookingRole.BOOKER, BookingState.FUTURE));
 
-    @Test
-    void testFindFutureBookingsByOwnerIdByPageable() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking pastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(pastBooking);
-
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findPastBookingsByOwnerId(user.getId(), pageable);
-
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getItem().getOwner()).isEqualTo(user);
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(futureBooking.getId());
     }
 
     @Test
-    void testFindWaitingBookingsByOwnerId() {
-        Booking waitingBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.WAITING);
+    void testFindBookingsForBookerWithWaitingState() {
+        Booking waitingBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.WAITING, user.getId(), null);
         bookingRepository.save(waitingBooking);
 
-        List<Booking> foundBookings = bookingRepository.findWaitingBookingsByOwnerId(user.getId());
+        List<Booking> foundBookings = bookingRepository.findBookings(query(BookingRole.BOOKER, BookingState.WAITING));
 
-        assertThat(foundBookings).isNotNull();
+        assertThat(foundBookings.size()).isEqualTo(1);
         assertThat(foundBookings.get(0).getStatus()).isEqualTo(BookingStatus.WAITING);
     }
 
     @Test
-    void testFindWaitingBookingsByOwnerIdByPageable() {
-        Booking waitingBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.WAITING);
-        bookingRepository.save(waitingBooking);
-
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findWaitingBookingsByOwnerId(user.getId(), pageable);
-
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getStatus()).isEqualTo(BookingStatus.WAITING);
-    }
-
-    @Test
-    void testFindRejectedBookingsByOwnerId() {
-        Booking rejectedBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.REJECTED);
+    void testFindBookingsForOwnerWithRejectedState() {
+        Booking rejectedBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.REJECTED, user.getId(), null);
         bookingRepository.save(rejectedBooking);
 
-        List<Booking> foundBookings = bookingRepository.findRejectedBookingsByOwnerId(user.getId());
+        List<Booking> foundBookings = bookingRepository.findBookings(query(BookingRole.OWNER, BookingState.REJECTED));
 
-        assertThat(foundBookings).isNotNull();
+        assertThat(foundBookings.size()).isEqualTo(1);
         assertThat(foundBookings.get(0).getStatus()).isEqualTo(BookingStatus.REJECTED);
+        assertThat(foundBookings.get(0).getItem().getOwner()).isEqualTo(user);
     }
 
     @Test
-    void testFindRejectedBookingsByOwnerIdPageable() {
-        Booking rejectedBooking = new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), item, user, BookingStatus.REJECTED);
-        bookingRepository.save(rejectedBooking);
+    void testFindBookingsForOwnerIgnoresOtherOwnersItems() {
+        User otherOwner = userRepository.save(new User(null, "Other", "other@example.com", null));
+        Item otherItem = itemRepository.save(new Item(null, "Other Item", "Other", true, otherOwner, null, null));
+        bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), otherItem, user, BookingStatus.WAITING, otherOwner.getId(), null));
 
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> foundBookingsPage = bookingRepository.findRejectedBookingsByOwnerId(user.getId(), pageable);
+        List<Booking> foundBookings = bookingRepository.findBookings(query(BookingRole.OWNER, BookingState.ALL));
 
-        assertThat(foundBookingsPage.getContent()).isNotNull();
-        assertThat(foundBookingsPage.getContent().get(0).getStatus()).isEqualTo(BookingStatus.REJECTED);
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(booking.getId());
     }
 
     @Test
-    void testFindPastBookingsByItemId() {
+    void testFindBookingsWithOffsetAndLimit() {
         LocalDateTime now = LocalDateTime.now();
-        Booking pastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
+        Booking pastBooking = new Booking(null, now.minusDays(3), now.minusDays(2), item, user, BookingStatus.APPROVED, user.getId(), null);
         bookingRepository.save(pastBooking);
 
-        List<Booking> foundBookings = bookingRepository.findPastBookingsByItemId(item.getId());
+        List<Booking> foundBookings = bookingRepository.findBookings(BookingQuery.builder()
+                .role(BookingRole.BOOKER)
+                .userId(user.getId())
+                .state(BookingState.ALL)
+                .now(now)
+                .offset(1)
+                .limit(1)
+                .build());
 
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getId()).isEqualTo(item.getId());
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(pastBooking.getId());
     }
 
     @Test
-    void testFindFutureBookingsByItemId() {
+    void testFindBookingsAfterCursorReturnsBookingsOlderThanCursor() {
         LocalDateTime now = LocalDateTime.now();
-        Booking futureBooking = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(futureBooking);
+        Booking older = new Booking(null, now.minusDays(3), now.minusDays(2), item, user, BookingStatus.APPROVED, user.getId(), null);
+        bookingRepository.save(older);
+        em.flush();
+        em.clear();
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
 
-        List<Booking> foundBookings = bookingRepository.findFutureBookingsByItemId(item.getId());
+        List<Booking> foundBookings = bookingRepository.findBookings(BookingQuery.builder()
+                .role(BookingRole.OWNER)
+                .userId(user.getId())
+                .state(BookingState.ALL)
+                .now(now)
+                .after(new SeekCursor(stored.getStart(), stored.getId()))
+                .limit(10)
+                .build());
 
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getId()).isEqualTo(item.getId());
+        assertThat(foundBookings.size()).isEqualTo(1);
+        assertThat(foundBookings.get(0).getId()).isEqualTo(older.getId());
     }
 
     @Test
-    void testFindLastBookingsForOwnerItems() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking lastBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(lastBooking);
+    void testFindBookingsIsTimedByRoleAndState() {
+        bookingRepository.findBookings(query(BookingRole.OWNER, BookingState.WAITING));
 
-        List<Booking> foundBookings = bookingRepository.findLastBookingsForOwnerItems(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getOwner().getId()).isEqualTo(user.getId());
+        assertEquals(1, timerCount("OWNER", "WAITING"));
+        assertEquals(0, timerCount("BOOKER", "WAITING"));
     }
 
-    @Test
-    void testFindNextBookingsForOwnerItems() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking nextBooking = new Booking(null, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(nextBooking);
-
-        List<Booking> foundBookings = bookingRepository.findNextBookingsForOwnerItems(user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getOwner().getId()).isEqualTo(user.getId());
+    private long timerCount(String role, String state) {
+        return meterRegistry.get("shareit.bookings.query").tag("role", role).tag("state", state).timer().count();
     }
 
-    @Test
-    void testFindFinishedBookingsByItemAndUser() {
-        LocalDateTime now = LocalDateTime.now();
-        Booking finishedBooking = new Booking(null, now.minusDays(2), now.minusDays(1), item, user, BookingStatus.APPROVED);
-        bookingRepository.save(finishedBooking);
-
-        List<Booking> foundBookings = bookingRepository.findFinishedBookingsByItemAndUser(item.getId(), user.getId());
-
-        assertThat(foundBookings).isNotNull();
-        assertThat(foundBookings.get(0).getItem().getId()).isEqualTo(item.getId());
-        assertThat(foundBookings.get(0).getBooker().getId()).isEqualTo(user.getId());
+    private BookingQuery query(BookingRole role, BookingState state) {
+        return BookingQuery.builder()
+                .role(role)
+                .userId(user.getId())
+                .state(state)
+                .now(LocalDateTime.now())
+                .limit(10)
+                .build();
     }
 }
\ No newline at end of file
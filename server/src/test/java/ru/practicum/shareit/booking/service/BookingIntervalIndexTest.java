@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository);
+        base = LocalDateTime.now().plusDays(10);
+    }
+
+    @Test
+    void testTryReserveWhenItemIsFreeThenIntervalIsTaken() {
+        assertTrue(index.tryReserve(1L, base, base.plusDays(2)));
+
+        assertFalse(index.isFree(1L, base.plusDays(1), base.plusDays(3)));
+        assertTrue(index.isFree(2L, base.plusDays(1), base.plusDays(3)));
+    }
+
+    @Test
+    void testTryReserveWhenIntervalsOverlapThenReservationIsRejected() {
+        index.tryReserve(1L, base, base.plusDays(2));
+
+        assertFalse(index.tryReserve(1L, base.minusDays(1), base.plusDays(1)));
+        assertFalse(index.tryReserve(1L, base.plusDays(1), base.plusDays(3)));
+        assertFalse(index.tryReserve(1L, base.plusHours(1), base.plusHours(2)));
+        assertFalse(index.tryReserve(1L, base.minusDays(1), base.plusDays(3)));
+    }
+
+    @Test
+    void testTryReserveWhenIntervalsTouchThenReservationIsAccepted() {
+        index.tryReserve(1L, base, base.plusDays(2));
+
+        assertTrue(index.tryReserve(1L, base.plusDays(2), base.plusDays(3)));
+        assertTrue(index.tryReserve(1L, base.minusDays(1), base));
+    }
+
+    @Test
+    void testIsFreeWhenLongBookingStartedEarlierThenOverlapIsFound() {
+        index.tryReserve(1L, base, base.plusDays(30));
+        index.tryReserve(1L, base.plusDays(40), base.plusDays(41));
+
+        assertFalse(index.isFree(1L, base.plusDays(20), base.plusDays(21)));
+        assertTrue(index.isFree(1L, base.plusDays(35), base.plusDays(36)));
+    }
+
+    @Test
+    void testReleaseWhenIntervalIsRemovedThenItemIsFreeAgain() {
+        index.tryReserve(1L, base, base.plusDays(2));
+
+        index.release(1L, base, base.plusDays(2));
+
+        assertTrue(index.isFree(1L, base, base.plusDays(2)));
+    }
+
+    @Test
+    void testWarmUpWhenRepositoryHasActiveBookingsThenTheyBlockItem() {
+        BookingInterval interval = interval(7L, base, base.plusDays(1));
+        when(bookingRepository.findIntervalsByStatusEndingAfter(eq(BookingIntervalIndex.BLOCKING_STATUSES),
+                any(LocalDateTime.class))).thenReturn(List.of(interval));
+
+        index.warmUp();
+
+        assertFalse(index.tryReserve(7L, base.plusHours(1), base.plusHours(2)));
+    }
+
+    @Test
+    void testWarmUpWhenItemIsReservedDuringLoadThenReservationIsKept() {
+        when(bookingRepository.findIntervalsByStatusEndingAfter(eq(BookingIntervalIndex.BLOCKING_STATUSES),
+                any(LocalDateTime.class))).thenAnswer(invocation -> {
+                    // Первая бронь уже закоммичена и попала в выборку, вторая еще нет
+                    index.tryReserve(7L, base, base.plusDays(1));
+                    index.tryReserve(7L, base.plusDays(5), base.plusDays(6));
+                    return List.of(interval(7L, base, base.plusDays(1)));
+                });
+
+        index.warmUp();
+
+        assertFalse(index.tryReserve(7L, base.plusDays(5), base.plusDays(6)));
+        index.release(7L, base, base.plusDays(1));
+        assertTrue(index.isFree(7L, base, base.plusDays(1)));
+    }
+
+    private static BookingInterval interval(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
@@ -6,13 +6,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 
 import ru.practicum.shareit.error.EntityNotFoundException;
@@ -20,7 +21,9 @@ import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 
@@ -30,6 +33,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +45,10 @@ class BookingServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+    @Mock
+    private UserExistenceCheck userExistence;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -82,6 +90,8 @@ class BookingServiceImplTest {
     void testSaveBookingWhenAllConditionsAreMetThenBookingResponseDtoIsReturned() {
         when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(intervalIndex.tryReserve(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd()))
+                .thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingResponseDto result = bookingService.save(booker.getId(), bookingRequestDto);
@@ -90,7 +100,30 @@ class BookingServiceImplTest {
         assertEquals(bookingResponseDto, result);
         verify(userRepository).findById(booker.getId());
         verify(itemRepository).findById(item.getId());
-        verify(bookingRepository).save(any(Booking.class));
+        verify(bookingRepository).save(argThat(saved -> owner.getId().equals(saved.getOwnerId())));
+    }
+
+    @Test
+    void testSaveBookingWhenItemIsAlreadyBookedThenThrowCustomBadRequestException() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(intervalIndex.tryReserve(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd()))
+                .thenReturn(false);
+
+        assertThrows(ValidationException.class, () -> bookingService.save(booker.getId(), bookingRequestDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void testSaveBookingWhenRepositoryFailsThenReservationIsReleased() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(intervalIndex.tryReserve(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd()))
+                .thenReturn(true);
+        when(bookingRepository.save(any(Booking.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> bookingService.save(booker.getId(), bookingRequestDto));
+        verify(intervalIndex).release(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
     }
 
     @Test
@@ -161,6 +194,17 @@ class BookingServiceImplTest {
         verify(bookingRepository).save(booking);
     }
 
+    @Test
+    void testUpdateBookingWhenRejectedThenIntervalIsReleased() {
+        when(bookingRepository.findBookingByIdWithItemAndBookerEagerly(booking.getId())).thenReturn(booking);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        BookingResponseDto result = bookingService.update(owner.getId(), booking.getId(), false);
+
+        assertEquals(BookingStatus.REJECTED, result.getStatus());
+        verify(intervalIndex).release(item.getId(), booking.getStart(), booking.getEnd());
+    }
+
     @Test
     void testUpdateBookingWhenWrongOwnerIdThenThrowCustomEntityNotFoundException() {
         Long wrongOwnerId = 3L;
@@ -242,18 +286,17 @@ class BookingServiceImplTest {
         String state = "ALL";
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findAllByGivenUserId(eq(bookerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.BOOKER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByBookerId(bookerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(booker.getId());
-        verify(bookingRepository).findAllByGivenUserId(eq(bookerId), any(Pageable.class));
+        verify(userExistence).requireExists(booker.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(bookerId)
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -262,18 +305,17 @@ class BookingServiceImplTest {
         String state = "CURRENT";
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findCurrentBookingsByBookerId(eq(bookerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.BOOKER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByBookerId(bookerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(booker.getId());
-        verify(bookingRepository).findCurrentBookingsByBookerId(eq(bookerId), any(Pageable.class));
+        verify(userExistence).requireExists(booker.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(bookerId)
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -282,18 +324,17 @@ class BookingServiceImplTest {
         String state = "PAST";
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findPastBookingsByBookerId(eq(bookerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.BOOKER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByBookerId(bookerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(booker.getId());
-        verify(bookingRepository).findPastBookingsByBookerId(eq(bookerId), any(Pageable.class));
+        verify(userExistence).requireExists(booker.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(bookerId)
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -302,18 +343,17 @@ class BookingServiceImplTest {
         String state = "FUTURE";
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findFutureBookingsByBookerId(eq(bookerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.BOOKER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByBookerId(bookerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(booker.getId());
-        verify(bookingRepository).findFutureBookingsByBookerId(eq(bookerId), any(Pageable.class));
+        verify(userExistence).requireExists(booker.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(bookerId)
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -322,18 +362,17 @@ class BookingServiceImplTest {
         String state = "WAITING";
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findWaitingBookingsByBookerId(eq(bookerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.BOOKER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByBookerId(bookerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(booker.getId());
-        verify(bookingRepository).findWaitingBookingsByBookerId(eq(bookerId), any(Pageable.class));
+        verify(userExistence).requireExists(booker.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(bookerId)
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -342,18 +381,17 @@ class BookingServiceImplTest {
         String state = "REJECTED";
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findRejectedBookingsByBookerId(eq(bookerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.BOOKER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByBookerId(bookerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(booker.getId());
-        verify(bookingRepository).findRejectedBookingsByBookerId(eq(bookerId), any(Pageable.class));
+        verify(userExistence).requireExists(booker.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(bookerId)
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -363,18 +401,17 @@ class BookingServiceImplTest {
         Integer from = 0;
         Integer size = 10;
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findAllBookingsByOwnerId(eq(ownerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByOwnerId(ownerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(owner.getId());
-        verify(bookingRepository).findAllBookingsByOwnerId(eq(owner.getId()), any(Pageable.class));
+        verify(userExistence).requireExists(owner.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(owner.getId())
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -384,18 +421,17 @@ class BookingServiceImplTest {
         Integer from = 0;
         Integer size = 10;
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findCurrentBookingsByOwnerId(eq(ownerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByOwnerId(ownerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(owner.getId());
-        verify(bookingRepository).findCurrentBookingsByOwnerId(eq(owner.getId()), any(Pageable.class));
+        verify(userExistence).requireExists(owner.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(owner.getId())
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -405,18 +441,17 @@ class BookingServiceImplTest {
         Integer from = 0;
         Integer size = 10;
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findPastBookingsByOwnerId(eq(ownerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByOwnerId(ownerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(owner.getId());
-        verify(bookingRepository).findPastBookingsByOwnerId(eq(owner.getId()), any(Pageable.class));
+        verify(userExistence).requireExists(owner.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(owner.getId())
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -426,18 +461,17 @@ class BookingServiceImplTest {
         Integer from = 0;
         Integer size = 10;
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findFutureBookingsByOwnerId(eq(ownerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByOwnerId(ownerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(owner.getId());
-        verify(bookingRepository).findFutureBookingsByOwnerId(eq(owner.getId()), any(Pageable.class));
+        verify(userExistence).requireExists(owner.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(owner.getId())
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -447,18 +481,17 @@ class BookingServiceImplTest {
         Integer from = 0;
         Integer size = 10;
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findWaitingBookingsByOwnerId(eq(ownerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByOwnerId(ownerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(owner.getId());
-        verify(bookingRepository).findWaitingBookingsByOwnerId(eq(owner.getId()), any(Pageable.class));
+        verify(userExistence).requireExists(owner.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(owner.getId())
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
     @Test
@@ -468,18 +501,52 @@ class BookingServiceImplTest {
         Integer from = 0;
         Integer size = 10;
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
-        var page = mock(Page.class);
-        when(page.getContent()).thenReturn(List.of(booking));
-        when(bookingRepository.findRejectedBookingsByOwnerId(eq(ownerId), any(Pageable.class))).thenReturn(page);
+        when(bookingRepository.findBookings(argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getState() == BookingState.valueOf(state)))).thenReturn(List.of(booking));
 
         List<BookingResponseDto> result = bookingService.getByOwnerId(ownerId, state, from, size);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(bookingResponseDto, result.get(0));
-        verify(userRepository).findById(owner.getId());
-        verify(bookingRepository).findRejectedBookingsByOwnerId(eq(owner.getId()), any(Pageable.class));
+        verify(userExistence).requireExists(owner.getId());
+        verify(bookingRepository).findBookings(argThat(query -> query.getUserId().equals(owner.getId())
+                && query.getOffset() == 0 && query.getLimit() == size));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGetBookingByBookerIdWithOffsetThenOffsetIsAlignedToPage() {
+        Long bookerId = 1L;
+        when(bookingRepository.findBookings(any(BookingQuery.class))).thenReturn(List.of(booking));
+
+        bookingService.getByBookerId(bookerId, "ALL", 25, 10);
+
+        verify(bookingRepository).findBookings(argThat(query -> query.getOffset() == 20 && query.getLimit() == 10));
+    }
+
+    @Test
+    void testGetBookingByBookerIdAfterCursorThenCursorIsPassedToQuery() {
+        Long bookerId = 1L;
+        SeekCursor cursor = new SeekCursor(LocalDateTime.now(), 5L);
+        when(bookingRepository.findBookings(any(BookingQuery.class))).thenReturn(List.of(booking));
+
+        List<BookingResponseDto> result = bookingService.getByBookerIdAfter(bookerId, "PAST", cursor, 10);
+
+        assertEquals(List.of(bookingResponseDto), result);
+        verify(bookingRepository).findBookings(argThat(query -> query.getRole() == BookingRole.BOOKER
+                && query.getState() == BookingState.PAST && query.getAfter() == cursor));
+    }
+
+    @Test
+    void testGetBookingByOwnerIdAfterCursorThenCursorIsPassedToQuery() {
+        Long ownerId = 2L;
+        SeekCursor cursor = new SeekCursor(LocalDateTime.now(), 5L);
+        when(bookingRepository.findBookings(any(BookingQuery.class))).thenReturn(List.of(booking));
+
+        List<BookingResponseDto> result = bookingService.getByOwnerIdAfter(ownerId, "WAITING", cursor, 10);
+
+        assertEquals(List.of(bookingResponseDto), result);
+        verify(bookingRepository).findBookings(argThat(query -> query.getRole() == BookingRole.OWNER
+                && query.getState() == BookingState.WAITING && query.getAfter() == cursor));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.etag;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityTagTest {
+
+    @Test
+    void testSameVersionsGiveSameWeakTag() {
+        String first = EntityTag.of(user(1L, 3L));
+        String second = EntityTag.of(user(1L, 3L));
+
+        assertThat(first).isEqualTo(second).startsWith("W/\"");
+    }
+
+    @Test
+    void testVersionChangeChangesTag() {
+        assertThat(EntityTag.of(user(1L, 3L))).isNotEqualTo(EntityTag.of(user(1L, 4L)));
+    }
+
+    @Test
+    void testListTagDependsOnMembershipAndOrder() {
+        String both = EntityTag.ofUsers(List.of(user(1L, 0L), user(2L, 0L)));
+
+        assertThat(both).isNotEqualTo(EntityTag.ofUsers(List.of(user(2L, 0L), user(1L, 0L))));
+        assertThat(both).isNotEqualTo(EntityTag.ofUsers(List.of(user(1L, 0L))));
+        assertThat(EntityTag.ofUsers(List.of())).isNotEqualTo(EntityTag.ofUsers(List.of(user(1L, 0L))));
+    }
+
+    @Test
+    void testItemTagCoversBookingsAndComments() {
+        ItemDto item = item();
+        String original = EntityTag.of(item);
+
+        item.setNextBooking(new BookingItemDto(7L, 2L));
+        String withNextBooking = EntityTag.of(item);
+        item.getComments().get(0).setAuthorName("Renamed");
+        String withRenamedAuthor = EntityTag.of(item);
+
+        assertThat(withNextBooking).isNotEqualTo(original);
+        assertThat(withRenamedAuthor).isNotEqualTo(withNextBooking);
+    }
+
+    private static UserDto user(Long id, Long version) {
+        return UserDto.builder().id(id).name("User").email("user@mail.ru").version(version).build();
+    }
+
+    private static ItemDto item() {
+        CommentDto comment = CommentDto.builder().id(5L).text("Good").authorName("Author").build();
+        return ItemDto.builder()
+                .id(1L)
+                .name("Item")
+                .description("Description")
+                .available(true)
+                .version(0L)
+                .lastBooking(new BookingItemDto(6L, 2L))
+                .comments(List.of(comment))
+                .build();
+    }
+}
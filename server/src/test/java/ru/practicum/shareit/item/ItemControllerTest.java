@@ -22,6 +22,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -227,4 +228,22 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName").value(responseDto.getAuthorName()))
                 .andExpect(jsonPath("$.created").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddBatchThenReturnCreatedIds() throws Exception {
+        List<ItemDto> dtos = List.of(
+                ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                ItemDto.builder().name("Пила").description("Ручная").available(true).requestId(3L).build());
+
+        when(itemService.addBatch(eq(1L), anyList())).thenReturn(List.of(51L, 52L));
+
+        mockMvc.perform(post("/items/batch")
+                        .header(ItemController.USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(dtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]").value(51))
+                .andExpect(jsonPath("$[1]").value(52));
+    }
+}
@@ -5,11 +5,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.RequestItemView;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,6 +28,9 @@ public class ItemRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
     private User user;
 
     @BeforeEach
@@ -67,9 +75,55 @@ public class ItemRepositoryTest {
 
     @Test
     void whenSearchByKeyword_thenReturnMatchingItems() {
-        List<Item> foundItems = itemRepository.findItemsBySearch("дрель");
+        List<Item> foundItems = itemRepository.findAvailableItemsBySearch("дрель", PageRequest.of(0, 10));
 
         assertThat(foundItems).hasSize(1);
         assertThat(foundItems.get(0).getName()).containsIgnoringCase("дрель");
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenSearchByKeyword_thenUnavailableItemsAreSkippedBeforePaging() {
+        itemRepository.save(Item.builder()
+                .name("Дрель старая")
+                .description("Сломана")
+                .available(false)
+                .owner(user)
+                .build());
+
+        List<Item> foundItems = itemRepository.findAvailableItemsBySearch("дрель", PageRequest.of(0, 1));
+
+        assertThat(foundItems).hasSize(1);
+        assertThat(foundItems.get(0).getAvailable()).isTrue();
+    }
+
+    @Test
+    void whenFindByRequestIds_thenReturnProjectionsSortedByRequest() {
+        ItemRequest first = requestRepository.save(new ItemRequest(null, "Нужна пила", user, LocalDateTime.now(), null));
+        ItemRequest second = requestRepository.save(new ItemRequest(null, "Нужен топор", user, LocalDateTime.now(), null));
+        itemRepository.save(Item.builder().name("Топор").description("Острый").available(true)
+                .owner(user).requestId(second.getId()).build());
+        itemRepository.save(Item.builder().name("Пила").description("Ручная").available(true)
+                .owner(user).requestId(first.getId()).build());
+        itemRepository.save(Item.builder().name("Пила 2").description("Цепная").available(false)
+                .owner(user).requestId(first.getId()).build());
+
+        List<RequestItemView> found = itemRepository.findByRequestIdInOrderByRequestIdAscIdAsc(
+                List.of(first.getId(), second.getId()));
+
+        assertThat(found).extracting(RequestItemView::getRequestId)
+                .containsExactly(first.getId(), first.getId(), second.getId());
+        assertThat(found).extracting(RequestItemView::getName).containsExactly("Пила", "Пила 2", "Топор");
+        assertThat(found.get(1).getAvailable()).isFalse();
+    }
+
+    @Test
+    void whenItemUpdated_thenVersionIsIncremented() {
+        Item item = itemRepository.findItemsByOwnerIdOrderById(user.getId()).get(0);
+        assertThat(item.getVersion()).isZero();
+
+        item.setDescription("Новое описание");
+        Item updated = itemRepository.saveAndFlush(item);
+
+        assertThat(updated.getVersion()).isEqualTo(1L);
+    }
+}
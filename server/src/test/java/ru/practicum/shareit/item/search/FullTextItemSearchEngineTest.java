@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private FullTextItemSearchEngine searchEngine;
+
+    @Test
+    void testToTsQueryWhenSeveralWordsThenPrefixTermsAreJoinedWithAnd() {
+        assertEquals("дрел:* & удар:*", FullTextItemSearchEngine.toTsQuery("Дрел  удар"));
+    }
+
+    @Test
+    void testToTsQueryWhenTextHasOperatorsThenTheyAreDropped() {
+        assertEquals("drill:* & 2000:*", FullTextItemSearchEngine.toTsQuery("drill & !(2000):*"));
+    }
+
+    @Test
+    void testSearchWhenTextHasNoWordsThenRepositoryIsNotCalled() {
+        List<?> result = searchEngine.search("!&|", PageRequest.of(0, 10));
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void testSearchPassesPageBoundsToQuery() {
+        searchEngine.search("дрель", PageRequest.of(2, 10));
+
+        verify(itemRepository).findAvailableItemsByFullText("дрель:*", 10, 20L);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private InMemoryItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        List<Item> items = List.of(
+                item(1L, "Дрель", "Ударная дрель Bosch", true),
+                item(2L, "Молоток", "Тяжелый", true),
+                item(3L, "Дрель старая", "Сломана", false),
+                item(4L, "Шуруповерт", "Дрель-шуруповерт аккумуляторный", true));
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(items));
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void testSearchMatchesSubstringIgnoringCase() {
+        assertEquals(List.of(1L, 4L), ids(searchEngine.search("ДРЕЛ", PageRequest.of(0, 10))));
+        assertEquals(List.of(1L), ids(searchEngine.search("osc", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearchWhenTrigramsMatchButTextDoesNotThenItemIsSkipped() {
+        assertTrue(searchEngine.search("дрель bosch молоток", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testSearchWhenQueryIsShorterThanTrigramThenScanIsUsed() {
+        assertEquals(List.of(2L), ids(searchEngine.search("мо", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearchAppliesPagingAfterAvailabilityFilter() {
+        assertEquals(List.of(4L), ids(searchEngine.search("дрел", PageRequest.of(1, 1))));
+    }
+
+    @Test
+    void testIndexWhenItemIsUpdatedThenOldTextIsNoLongerFound() {
+        searchEngine.index(item(2L, "Кувалда", "Тяжелая", true));
+
+        assertTrue(searchEngine.search("молоток", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(2L), ids(searchEngine.search("кувалд", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testIndexWhenItemIsUpdatedRepeatedlyThenIndexStaysBounded() {
+        int postings = searchEngine.postingCount();
+
+        for (int i = 0; i < 1000; i++) {
+            searchEngine.index(item(2L, "Молоток", "Тяжелый", i % 2 == 1));
+        }
+
+        assertTrue(searchEngine.documentCount() <= 8);
+        assertTrue(searchEngine.postingCount() <= postings * 2);
+        assertEquals(List.of(1L, 4L), ids(searchEngine.search("дрел", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L), ids(searchEngine.search("молот", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testIndexWhenNewItemIsAddedThenItIsFound() {
+        searchEngine.index(item(5L, "Дрель аккумуляторная", "Makita", true));
+
+        assertEquals(List.of(1L, 4L, 5L), ids(searchEngine.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return Item.builder().id(id).name(name).description(description).available(available).build();
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PostingListTest {
+
+    @Test
+    void testAddWhenDeltasNeedSeveralBytesThenValuesAreRestored() {
+        PostingList list = new PostingList();
+        int[] ordinals = {0, 1, 127, 128, 16_511, 2_000_000, Integer.MAX_VALUE};
+        for (int ordinal : ordinals) {
+            list.add(ordinal);
+        }
+
+        assertEquals(ordinals.length, list.size());
+        assertArrayEquals(ordinals, list.toArray());
+    }
+
+    @Test
+    void testAddWhenSameOrdinalRepeatedThenItIsStoredOnce() {
+        PostingList list = new PostingList();
+        list.add(5);
+        list.add(5);
+
+        assertArrayEquals(new int[]{5}, list.toArray());
+    }
+
+    @Test
+    void testAddWhenOrdinalDecreasesThenExceptionIsThrown() {
+        PostingList list = new PostingList();
+        list.add(5);
+
+        assertThrows(IllegalArgumentException.class, () -> list.add(3));
+    }
+
+    @Test
+    void testIntersectReturnsCommonOrdinals() {
+        assertArrayEquals(new int[]{3, 9}, PostingList.intersect(new int[]{1, 3, 5, 9}, new int[]{2, 3, 9, 11}));
+        assertArrayEquals(new int[0], PostingList.intersect(new int[]{1, 2}, new int[]{3, 4}));
+    }
+}
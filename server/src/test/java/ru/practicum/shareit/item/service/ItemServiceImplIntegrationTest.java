@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.error.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemServiceImplIntegrationTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking lastBooking;
+    private Booking nextBooking;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder().name("Owner").email("owner@example.com").build();
+        booker = User.builder().name("Booker").email("booker@example.com").build();
+        em.persist(owner);
+        em.persist(booker);
+        item = Item.builder().name("Дрель").description("Ударная").available(true).owner(owner).build();
+        em.persist(item);
+
+        LocalDateTime now = LocalDateTime.now();
+        lastBooking = booking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        booking(now.minusDays(6), now.minusDays(5), BookingStatus.APPROVED);
+        booking(now.minusDays(1), now.minusHours(1), BookingStatus.REJECTED);
+        nextBooking = booking(now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        booking(now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+
+        em.persist(Comment.builder().text("Отличная дрель").item(item).author(booker).created(now).build());
+        em.persist(Comment.builder().text("Шумная").item(item).author(owner).created(now).build());
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void testGetByIdForOwnerUsesAtMostTwoStatements() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemDto result = itemService.getById(owner.getId(), item.getId());
+
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+        assertEquals(new BookingItemDto(lastBooking.getId(), booker.getId()), result.getLastBooking());
+        assertEquals(new BookingItemDto(nextBooking.getId(), booker.getId()), result.getNextBooking());
+        assertEquals(2, result.getComments().size());
+    }
+
+    @Test
+    void testGetByIdForOtherUserHidesBookings() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemDto result = itemService.getById(booker.getId(), item.getId());
+
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        assertEquals(2, result.getComments().size());
+    }
+
+    @Test
+    void testAddBatchReturnsIdsInOrderAndGroupsInserts() {
+        ItemRequest request = ItemRequest.builder().description("Нужна дрель").requester(booker)
+                .created(LocalDateTime.now()).build();
+        em.persist(request);
+        em.flush();
+        List<ItemDto> itemDtos = IntStream.range(0, 120)
+                .mapToObj(i -> ItemDto.builder().name("Вещь " + i).description("Описание").available(true)
+                        .requestId(i % 2 == 0 ? request.getId() : null).build())
+                .collect(Collectors.toList());
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> ids = itemService.addBatch(owner.getId(), itemDtos);
+        em.flush();
+
+        // Проверка владельца и запросов, по одной выборке из последовательности на 50 id и три пакета INSERT
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+        em.clear();
+        assertEquals(itemDtos.size(), ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Item saved = em.find(Item.class, ids.get(i));
+            assertEquals("Вещь " + i, saved.getName());
+            assertEquals(owner.getId(), saved.getOwner().getId());
+            assertEquals(itemDtos.get(i).getRequestId(), saved.getRequestId());
+        }
+    }
+
+    @Test
+    void testAddBatchWithUnknownRequestThenNothingSaved() {
+        List<ItemDto> itemDtos = List.of(
+                ItemDto.builder().name("Пила").description("Ручная").available(true).build(),
+                ItemDto.builder().name("Молоток").description("Большой").available(true).requestId(-1L).build());
+        Long itemsBefore = em.createQuery("SELECT count(i) FROM Item i", Long.class).getSingleResult();
+
+        assertThrows(EntityNotFoundException.class, () -> itemService.addBatch(owner.getId(), itemDtos));
+        assertEquals(itemsBefore, em.createQuery("SELECT count(i) FROM Item i", Long.class).getSingleResult());
+    }
+
+    @Test
+    void testAddBatchWithUnknownOwnerThenNotFound() {
+        List<ItemDto> itemDtos = List.of(ItemDto.builder().name("Пила").description("Ручная").available(true).build());
+
+        assertThrows(EntityNotFoundException.class, () -> itemService.addBatch(-1L, itemDtos));
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build();
+        em.persist(booking);
+        return booking;
+    }
+}
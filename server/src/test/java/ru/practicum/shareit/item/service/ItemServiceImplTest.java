@@ -8,11 +8,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingView;
 import ru.practicum.shareit.error.EntityNotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -20,9 +20,12 @@ import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemDetailView;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
@@ -46,6 +49,10 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private UserExistenceCheck userExistence;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -58,12 +65,12 @@ class ItemServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        user = new User(1L, "User", "user@example.com");
-        item = new Item(1L, "Item", "Description", true, user, null);
-        itemDto = new ItemDto(1L, "Item", "Description", true, null, null, null, null);
+        user = new User(1L, "User", "user@example.com", null);
+        item = new Item(1L, "Item", "Description", true, user, null, null);
+        itemDto = new ItemDto(1L, "Item", "Description", true, null, null, null, null, 0L);
         comment = new Comment(1L, "Comment", item, user, null);
         commentDto = new CommentDto(1L, "Comment", item, user, "User", null);
-        booking = new Booking(1L, null, null, item, user, null);
+        booking = new Booking(1L, null, null, item, user, null, null, null);
     }
 
     @Test
@@ -76,7 +83,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .requestId(requestId)
                 .build();
-        User owner = new User(ownerId, "Owner Name", "owner@example.com");
+        User owner = new User(ownerId, "Owner Name", "owner@example.com", null);
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> {
@@ -89,11 +96,11 @@ class ItemServiceImplTest {
 
         assertNotNull(savedItemDto);
         assertEquals(requestId, savedItemDto.getRequestId());
+        verify(itemSearchEngine).index(argThat(item -> item.getId().equals(1L)));
     }
 
     @Test
     void testUpdateItemWhenAllDependenciesAvailableThenItemUpdated() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
@@ -114,11 +121,9 @@ class ItemServiceImplTest {
                 .description("Updated Description")
                 .available(true)
                 .build();
-        User existOwner = new User(ownerId, "Owner Name", "owner@example.com");
-        User wrongOwner = new User(wrongOwnerId, "Wrong Owner Name", "wrongowner@example.com");
-        Item existItem = new Item(itemId, "Item Name", "Item Description", true, wrongOwner, null);
+        User wrongOwner = new User(wrongOwnerId, "Wrong Owner Name", "wrongowner@example.com", null);
+        Item existItem = new Item(itemId, "Item Name", "Item Description", true, wrongOwner, null, null);
 
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(existOwner));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(existItem));
 
         assertThrows(EntityNotFoundException.class, () -> itemService.update(itemDto, itemId, ownerId));
@@ -127,39 +132,44 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void testGetByIdWhenAllDependenciesAvailableThenItemRetrieved() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+    void testGetByIdWhenUserIsOwnerThenItemWithBookingsRetrieved() {
+        ItemDetailView detail = itemDetail(user.getId(), true);
+        when(detail.getLastBookingId()).thenReturn(5L);
+        when(detail.getLastBookerId()).thenReturn(3L);
+        when(itemRepository.findItemDetail(eq(item.getId()), eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(detail));
         when(commentRepository.findByItemId(anyLong())).thenReturn(Collections.singletonList(comment));
 
         ItemDto result = itemService.getById(user.getId(), item.getId());
 
         assertNotNull(result);
         assertEquals(itemDto.getName(), result.getName());
+        assertEquals(new BookingItemDto(5L, 3L), result.getLastBooking());
+        assertNull(result.getNextBooking());
+        assertEquals(1, result.getComments().size());
         verify(commentRepository, times(1)).findByItemId(anyLong());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void getByIdShouldReturnItemDtoWithCommentsWhenUserIsNotOwner() {
         Long userId = 1L;
-        Long ownerId = 2L;
         Long itemId = 1L;
-        User user = new User(userId, "User Name", "user@example.com");
-        User owner = new User(ownerId, "Owner Name", "owner@example.com");
-        Item item = new Item(itemId, "Item Name", "Item Description", true, owner, null);
+        User user = new User(userId, "User Name", "user@example.com", null);
         Comment comment = new Comment(1L, "Great item!", item, user, LocalDateTime.now());
         CommentDto commentDto = CommentMapper.INSTANCE.toCommentDto(comment);
+        ItemDetailView detail = itemDetail(2L, true);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findItemDetail(eq(itemId), eq(userId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(detail));
         when(commentRepository.findByItemId(itemId)).thenReturn(Collections.singletonList(comment));
 
         ItemDto result = itemService.getById(userId, itemId);
 
         assertNotNull(result);
         assertEquals(itemId, result.getId());
-        assertEquals("Item Name", result.getName());
-        assertEquals("Item Description", result.getDescription());
+        assertEquals(item.getName(), result.getName());
+        assertEquals(item.getDescription(), result.getDescription());
         assertTrue(result.getAvailable());
         assertNull(result.getLastBooking());
         assertNull(result.getNextBooking());
@@ -168,17 +178,47 @@ class ItemServiceImplTest {
         assertEquals(1, result.getComments().size());
         assertEquals(commentDto.getText(), result.getComments().get(0).getText());
 
-        verify(userRepository).findById(userId);
-        verify(itemRepository).findById(itemId);
+        verify(itemRepository).findItemDetail(eq(itemId), eq(userId), any(LocalDateTime.class));
         verify(commentRepository).findByItemId(itemId);
     }
 
+    @Test
+    void getByIdShouldThrowWhenUserDoesNotExist() {
+        ItemDetailView detail = itemDetail(user.getId(), false);
+        when(itemRepository.findItemDetail(eq(item.getId()), eq(100L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(detail));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> itemService.getById(100L, item.getId()));
+
+        assertEquals("Нет пользователя с id: 100", exception.getMessage());
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getByIdShouldThrowWhenItemDoesNotExist() {
+        when(itemRepository.findItemDetail(eq(100L), eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> itemService.getById(user.getId(), 100L));
+
+        assertEquals("Нет лота с id: 100", exception.getMessage());
+    }
+
     @Test
     void testGetAllItemsWhenAllDependenciesAvailableThenAllItemsRetrieved() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userExistence.exists(user.getId())).thenReturn(true);
         when(itemRepository.findItemsByOwnerIdOrderById(anyLong(), any(PageRequest.class))).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findLastBookingsForOwnerItems(anyLong())).thenReturn(Collections.singletonList(booking));
-        when(bookingRepository.findNextBookingsForOwnerItems(anyLong())).thenReturn(Collections.singletonList(booking));
+        ItemBookingView lastBooking = mock(ItemBookingView.class);
+        when(lastBooking.getId()).thenReturn(5L);
+        when(lastBooking.getBookerId()).thenReturn(3L);
+        when(lastBooking.getItemId()).thenReturn(item.getId());
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
         when(commentRepository.findByAuthorId(anyLong())).thenReturn(Collections.singletonList(comment));
 
         List<ItemDto> result = itemService.getByUser(user.getId(), 0, 10);
@@ -186,6 +226,8 @@ class ItemServiceImplTest {
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
+        assertEquals(new BookingItemDto(5L, 3L), result.get(0).getLastBooking());
+        assertNull(result.get(0).getNextBooking());
         verify(itemRepository, times(1)).findItemsByOwnerIdOrderById(anyLong(), any(PageRequest.class));
     }
 
@@ -200,15 +242,14 @@ class ItemServiceImplTest {
 
     @Test
     void testSearchByTextWhenAllDependenciesAvailableThenItemsSearched() {
-        Page<Item> page = new PageImpl<>(List.of(item));
-        when(itemRepository.findItemsBySearch(anyString(), any(PageRequest.class))).thenReturn(page);
+        when(itemSearchEngine.search(anyString(), any(PageRequest.class))).thenReturn(List.of(item));
 
-        List<ItemDto> result = itemService.getBySearch("Item",0, 10);
+        List<ItemDto> result = itemService.getBySearch("Item", 15, 10);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        verify(itemRepository, times(1)).findItemsBySearch(anyString(), any(PageRequest.class));
+        verify(itemSearchEngine, times(1)).search("Item", PageRequest.of(1, 10));
     }
 
     @Test
@@ -231,8 +272,8 @@ class ItemServiceImplTest {
         Long userId = 1L;
         CommentDto commentDto = new CommentDto();
 
-        User user = new User(userId, "User Name", "user@example.com");
-        Item item = new Item(itemId, "Item Name", "Item Description", true, user, null);
+        User user = new User(userId, "User Name", "user@example.com", null);
+        Item item = new Item(itemId, "Item Name", "Item Description", true, user, null, null);
 
         when(userRepository.findById(userId)).thenReturn(java.util.Optional.of(user));
         when(itemRepository.findById(itemId)).thenReturn(java.util.Optional.of(item));
@@ -241,4 +282,17 @@ class ItemServiceImplTest {
         assertThrows(ValidationException.class, () -> itemService.saveComment(itemId, userId, commentDto),
                 "User cant comment this item, cause booking isn't done already");
     }
-}
\ No newline at end of file
+
+    private ItemDetailView itemDetail(Long ownerId, boolean userExists) {
+        ItemDetailView detail = mock(ItemDetailView.class);
+        when(detail.getId()).thenReturn(item.getId());
+        when(detail.getName()).thenReturn(item.getName());
+        when(detail.getDescription()).thenReturn(item.getDescription());
+        when(detail.getAvailable()).thenReturn(item.getAvailable());
+        when(detail.getOwnerId()).thenReturn(ownerId);
+        when(detail.getUserExists()).thenReturn(userExists);
+        when(detail.getLastBookingId()).thenReturn(null);
+        when(detail.getNextBookingId()).thenReturn(null);
+        return detail;
+    }
+}
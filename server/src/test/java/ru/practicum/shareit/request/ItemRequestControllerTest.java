@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -19,9 +20,11 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,7 +46,7 @@ class ItemRequestControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
-        itemRequestDto = new ItemRequestDto(1L, "Description", 2L, LocalDateTime.now(), Collections.emptyList());
+        itemRequestDto = new ItemRequestDto(1L, "Description", 2L, LocalDateTime.now(), Collections.emptyList(), 0L);
     }
 
     @Test
@@ -84,6 +87,21 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].description").value(itemRequestDto.getDescription()));
     }
 
+    @Test
+    void testGetRequestsByCursorWhenPageIsFullThenNextCursorIsReturned() throws Exception {
+        SeekCursor cursor = new SeekCursor(LocalDateTime.of(2024, 1, 1, 12, 0), 5L);
+        when(itemRequestService.getAllAfter(eq(2L), eq(cursor), eq(1))).thenReturn(List.of(itemRequestDto));
+
+        mockMvc.perform(get("/requests/all")
+                .header(ItemRequestController.USER_ID, 2L)
+                .param("size", "1")
+                .param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemRequestDto.getId()))
+                .andExpect(header().string(SeekCursor.NEXT_CURSOR_HEADER,
+                        new SeekCursor(itemRequestDto.getCreated(), itemRequestDto.getId()).encode()));
+    }
+
     @Test
     void testGetRequestByIdWhenValidRequestThenReturnItemRequestDto() throws Exception {
         when(itemRequestService.getByRequestId(any(Long.class), any(Long.class))).thenReturn(itemRequestDto);
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -57,4 +58,44 @@ public class ItemRequestRepositoryTest {
         List<ItemRequest> result = requestRepository.findItemRequestsByRequesterId(-1L);
         assertThat(result).isEmpty();
     }
+
+    @Test
+    public void testFindAllWithoutRequesterIdReturnsNewestFirstAndSkipsOwnRequests() {
+        User other = User.builder().name("Other").email("other@test.com").build();
+        em.persist(other);
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        ItemRequest older = request(other, created.minusDays(1));
+        ItemRequest sameTimeFirst = request(other, created);
+        ItemRequest sameTimeSecond = request(other, created);
+
+        List<ItemRequest> result = requestRepository.findAllWithoutRequesterId(user.getId(), PageRequest.of(0, 10));
+
+        assertThat(result).extracting(ItemRequest::getId)
+                .containsExactly(sameTimeSecond.getId(), sameTimeFirst.getId(), older.getId());
+    }
+
+    @Test
+    public void testFindAllWithoutRequesterIdAfterContinuesFromCursor() {
+        User other = User.builder().name("Other").email("other@test.com").build();
+        em.persist(other);
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        ItemRequest older = request(other, created.minusDays(1));
+        ItemRequest sameTimeFirst = request(other, created);
+        ItemRequest sameTimeSecond = request(other, created);
+
+        List<ItemRequest> result = requestRepository.findAllWithoutRequesterIdAfter(user.getId(),
+                created, sameTimeSecond.getId(), PageRequest.of(0, 10));
+
+        assertThat(result).extracting(ItemRequest::getId).containsExactly(sameTimeFirst.getId(), older.getId());
+    }
+
+    private ItemRequest request(User requester, LocalDateTime created) {
+        ItemRequest request = ItemRequest.builder()
+                .description("Description")
+                .requester(requester)
+                .created(created)
+                .build();
+        em.persist(request);
+        return request;
+    }
 }
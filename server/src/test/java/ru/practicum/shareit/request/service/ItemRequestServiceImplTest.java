@@ -8,15 +8,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.error.EntityNotFoundException;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.RequestItemView;
+import ru.practicum.shareit.pagination.SeekCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCheck;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
@@ -37,6 +38,8 @@ class ItemRequestServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private UserExistenceCheck userExistence;
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -46,12 +49,11 @@ class ItemRequestServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        user = new User(1L, "User", "user@example.com");
-        itemRequest = new ItemRequest(1L, "Need a drill", user, LocalDateTime.now());
-        itemRequestDto = new ItemRequestDto(1L, "Need a drill", 1L, LocalDateTime.now(), Collections.emptyList());
+        user = new User(1L, "User", "user@example.com", null);
+        itemRequest = new ItemRequest(1L, "Need a drill", user, LocalDateTime.now(), null);
+        itemRequestDto = new ItemRequestDto(1L, "Need a drill", 1L, LocalDateTime.now(), Collections.emptyList(), 0L);
 
         when(userRepository.findById(any(Long.class))).thenReturn(java.util.Optional.of(user));
-        when(itemRepository.findByRequestId(any(Long.class))).thenReturn(Collections.emptyList());
     }
 
     @Test
@@ -69,7 +71,6 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestsShouldReturnListOfRequests() {
-        when(userRepository.findById(any(Long.class))).thenReturn(java.util.Optional.of(user));
         when(requestRepository.findItemRequestsByRequesterId(any(Long.class))).thenReturn(List.of(itemRequest));
 
         List<ItemRequestDto> result = itemRequestService.getByUserId(1L);
@@ -77,29 +78,27 @@ class ItemRequestServiceImplTest {
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        verify(userRepository, times(1)).findById(any(Long.class));
+        verify(userExistence, times(1)).requireExists(1L);
         verify(requestRepository, times(1)).findItemRequestsByRequesterId(any(Long.class));
     }
 
     @Test
     void getRequestByPaginationShouldReturnListOfRequests() {
-        Page<ItemRequest> page = new PageImpl<>(List.of(itemRequest));
-        when(userRepository.findById(any(Long.class))).thenReturn(java.util.Optional.of(user));
-        when(requestRepository.findAllWithoutRequesterId(any(Long.class), any(PageRequest.class))).thenReturn(page);
+        when(requestRepository.findAllWithoutRequesterId(any(Long.class), any(PageRequest.class)))
+                .thenReturn(List.of(itemRequest));
 
         List<ItemRequestDto> result = itemRequestService.getAllPaginated(1L, 0, 1);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        verify(userRepository, times(1)).findById(any(Long.class));
+        verify(userExistence, times(1)).requireExists(1L);
         verify(requestRepository, times(1)).findAllWithoutRequesterId(any(Long.class), any(PageRequest.class));
     }
 
     @Test
     void getRequestByPaginationShouldReturnGetRequestsResult() {
-        Page<ItemRequest> page = new PageImpl<>(List.of());
-        when(requestRepository.findAllWithoutRequesterId(any(Long.class), any())).thenReturn(page);
+        when(requestRepository.findAllWithoutRequesterId(any(Long.class), any())).thenReturn(List.of());
 
         List<ItemRequestDto> result = itemRequestService.getAllPaginated(1L, 0, 10);
 
@@ -107,27 +106,65 @@ class ItemRequestServiceImplTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getRequestsAfterCursorShouldUseKeysetQuery() {
+        SeekCursor cursor = new SeekCursor(LocalDateTime.now(), 7L);
+        when(requestRepository.findAllWithoutRequesterIdAfter(1L, cursor.getTimestamp(), cursor.getId(),
+                PageRequest.of(0, 5))).thenReturn(List.of(itemRequest));
+
+        List<ItemRequestDto> result = itemRequestService.getAllAfter(1L, cursor, 5);
+
+        assertEquals(1, result.size());
+        verify(requestRepository).findAllWithoutRequesterIdAfter(1L, cursor.getTimestamp(), cursor.getId(),
+                PageRequest.of(0, 5));
+    }
+
     @Test
     void getRequestByIdShouldReturnRequest() {
-        when(userRepository.findById(any(Long.class))).thenReturn(java.util.Optional.of(user));
         when(requestRepository.findById(any(Long.class))).thenReturn(java.util.Optional.of(itemRequest));
 
         ItemRequestDto result = itemRequestService.getByRequestId(1L, 1L);
 
         assertNotNull(result);
         assertEquals(itemRequestDto.getDescription(), result.getDescription());
-        verify(userRepository, times(1)).findById(any(Long.class));
+        verify(userExistence, times(1)).requireExists(1L);
         verify(requestRepository, times(1)).findById(any(Long.class));
     }
 
+    @Test
+    void getRequestsShouldGroupSeveralAnsweringItemsUnderOneRequest() {
+        ItemRequest otherRequest = new ItemRequest(2L, "Need a saw", user, LocalDateTime.now(), null);
+        when(requestRepository.findItemRequestsByRequesterId(any(Long.class)))
+                .thenReturn(List.of(itemRequest, otherRequest));
+        List<RequestItemView> answers = List.of(answer(10L, 1L), answer(11L, 1L));
+        when(itemRepository.findByRequestIdInOrderByRequestIdAscIdAsc(List.of(1L, 2L))).thenReturn(answers);
+
+        List<ItemRequestDto> result = itemRequestService.getByUserId(1L);
+
+        assertEquals(2, result.size());
+        assertEquals(List.of(10L, 11L), List.of(result.get(0).getItems().get(0).getId(),
+                result.get(0).getItems().get(1).getId()));
+        assertEquals(1L, result.get(0).getItems().get(0).getRequestId());
+        assertTrue(result.get(1).getItems().isEmpty());
+    }
+
     @Test
     void getRequestByIdShouldThrowExceptionWhenRequestNotFound() {
-        when(userRepository.findById(any(Long.class))).thenReturn(java.util.Optional.of(user));
         when(requestRepository.findById(any(Long.class))).thenReturn(java.util.Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> itemRequestService.getByRequestId(1L, 1L));
 
-        verify(userRepository, times(1)).findById(any(Long.class));
+        verify(userExistence, times(1)).requireExists(1L);
         verify(requestRepository, times(1)).findById(any(Long.class));
     }
-}
\ No newline at end of file
+
+    private RequestItemView answer(Long itemId, Long requestId) {
+        RequestItemView view = mock(RequestItemView.class);
+        when(view.getId()).thenReturn(itemId);
+        when(view.getName()).thenReturn("Item " + itemId);
+        when(view.getDescription()).thenReturn("Description");
+        when(view.getAvailable()).thenReturn(true);
+        when(view.getRequestId()).thenReturn(requestId);
+        return view;
+    }
+}
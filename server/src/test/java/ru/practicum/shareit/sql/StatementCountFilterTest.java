@@ -0,0 +1,68 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementCountFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementCountFilter filter = new StatementCountFilter(meterRegistry, 2);
+    private final StatementCounter inspector = new StatementCounter();
+
+    @Test
+    void testHeaderAndMetricCountStatementsOfRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+            inspector.inspect("select * from items where id=?");
+            inspector.inspect("select * from users where id=?");
+            inspector.inspect("select * from users where id=?");
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            // Ленивая загрузка после начала записи тела: в заголовок не попадает, в метрику попадает
+            inspector.inspect("select * from comments where item_id=?");
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals("3", response.getHeader(StatementCountFilter.HEADER));
+        DistributionSummary summary = meterRegistry.get(StatementCountFilter.METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/items/{itemId}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(4, summary.totalAmount());
+    }
+
+    @Test
+    void testHeaderIsSetForResponseWithoutBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/users/1"), response,
+                (req, res) -> inspector.inspect("delete from users where id=?"));
+
+        assertEquals("1", response.getHeader(StatementCountFilter.HEADER));
+    }
+
+    @Test
+    void testStatementsOutsideRequestAreNotCounted() throws Exception {
+        inspector.inspect("select 1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users"), response, (req, res) -> {
+        });
+        inspector.inspect("select 1");
+
+        assertEquals("0", response.getHeader(StatementCountFilter.HEADER));
+        assertEquals(0, meterRegistry.get(StatementCountFilter.METRIC).tag("uri", "UNKNOWN").summary().totalAmount());
+    }
+}
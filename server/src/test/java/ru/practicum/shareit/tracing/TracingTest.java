@@ -0,0 +1,108 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TracingTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().name("Traced").email("traced@example.com").build());
+        exporter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void testRequestContinuesIncomingTraceWithLayerSpans() throws Exception {
+        mockMvc.perform(get("/users/{id}", user.getId())
+                        .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+
+        Map<String, SpanData> spans = finishedSpans();
+        SpanData server = spans.get("GET /users/{id}");
+        SpanData controller = spans.get("UserController.getById");
+        SpanData service = spans.get("UserServiceImpl.getById");
+        SpanData repository = spans.get("UserRepository.findById");
+
+        assertThat(server.getKind()).isEqualTo(SpanKind.SERVER);
+        assertThat(server.getTraceId()).isEqualTo(TRACE_ID);
+        assertThat(server.getParentSpanId()).isEqualTo(PARENT_SPAN_ID);
+        assertThat(server.getAttributes().get(TracingFilter.HTTP_STATUS_CODE)).isEqualTo(200L);
+        assertThat(controller.getParentSpanId()).isEqualTo(server.getSpanId());
+        assertThat(service.getParentSpanId()).isEqualTo(controller.getSpanId());
+        assertThat(repository.getParentSpanId()).isEqualTo(service.getSpanId());
+        assertThat(repository.getAttributes().get(TracingAspect.LAYER)).isEqualTo("repository");
+    }
+
+    @Test
+    void testRequestWithoutTraceparentStartsNewTrace() throws Exception {
+        mockMvc.perform(get("/users/{id}", user.getId() + 1000))
+                .andExpect(status().isNotFound());
+
+        SpanData server = finishedSpans().get("GET /users/{id}");
+
+        assertThat(server.getParentSpanContext().isValid()).isFalse();
+        assertThat(server.getAttributes().get(TracingFilter.HTTP_STATUS_CODE)).isEqualTo(404L);
+    }
+
+    private Map<String, SpanData> finishedSpans() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        return spans.stream().collect(Collectors.toMap(SpanData::getName, Function.identity(), (a, b) -> a));
+    }
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
@@ -6,18 +6,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.user.dto.UserBatchErrorDto;
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -98,12 +106,89 @@ public class UserControllerTest {
                 UserDto.builder().id(1L).name("Test User 1").email("user1@example.com").build(),
                 UserDto.builder().id(2L).name("Test User 2").email("user2@example.com").build()
         );
-        when(service.getAll()).thenReturn(users);
+        when(service.getAll(0)).thenReturn(users);
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(users)));
 
-        verify(service, times(1)).getAll();
+        verify(service, times(1)).getAll(0);
+    }
+
+    @Test
+    void testGetUserByIdWithMatchingEtagThenReturnNotModified() throws Exception {
+        Long userId = 1L;
+        UserDto userDto = UserDto.builder().id(userId).name("Test User").email("test@example.com").version(0L).build();
+        when(service.getById(userId)).thenReturn(userDto);
+
+        String etag = mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        userDto.setVersion(1L);
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testAddBatchThenBodyIsPassedToServiceAndReportReturned() throws Exception {
+        UserBatchResultDto report = new UserBatchResultDto(1,
+                List.of(new UserBatchErrorDto(1, "bad", "email: must be a well-formed email address")));
+        when(service.addBatch(any(InputStream.class))).thenReturn(report);
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"a\", \"email\": \"a@a.ru\"}, {\"name\": \"b\", \"email\": \"bad\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(report)));
+
+        verify(service, times(1)).addBatch(any(InputStream.class));
+    }
+
+    @Test
+    void testGetAllWithSizeThenReturnPage() throws Exception {
+        List<UserDto> users = List.of(UserDto.builder().id(3L).name("Test User 3").email("user3@example.com").build());
+        when(service.getAll(2, 2)).thenReturn(users);
+
+        mockMvc.perform(get("/users").param("from", "2").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(users)));
+
+        verify(service, never()).getAll(anyInt());
+    }
+
+    @Test
+    void testGetAllWithFromWithoutSizeThenOffsetIsPassed() throws Exception {
+        List<UserDto> users = List.of(UserDto.builder().id(3L).name("Test User 3").email("user3@example.com").build());
+        when(service.getAll(2)).thenReturn(users);
+
+        mockMvc.perform(get("/users").param("from", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(users)));
+
+        verify(service, times(1)).getAll(2);
+    }
+
+    @Test
+    void testGetAllWithNdjsonAcceptThenStreamServiceOutput() throws Exception {
+        when(service.export(eq(0), eq(null), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+        verify(service, never()).getAll(anyInt());
     }
 }
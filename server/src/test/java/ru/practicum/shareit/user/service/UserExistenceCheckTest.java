@@ -0,0 +1,68 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.error.EntityNotFoundException;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExistenceCheckTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExistenceCheck check = new UserExistenceCheck(userRepository, new SimpleMeterRegistry());
+
+    @Test
+    void testConfirmedUserIsNotQueriedAgain() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(check.exists(1L));
+        assertTrue(check.exists(1L));
+
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testMissingUserIsQueriedEveryTime() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> check.requireExists(1L));
+        assertThrows(EntityNotFoundException.class, () -> check.requireExists(1L));
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void testForgottenUserIsQueriedAgain() {
+        when(userRepository.existsById(1L)).thenReturn(true).thenReturn(false);
+
+        check.requireExists(1L);
+        check.forget(1L);
+
+        assertFalse(check.exists(1L));
+    }
+
+    @Test
+    void testUserDeletedWhileCheckingIsNotCached() {
+        when(userRepository.existsById(1L))
+                .thenAnswer(invocation -> {
+                    // Удаление закоммичено после того, как existsById прочитал строку
+                    check.forget(1L);
+                    return true;
+                })
+                .thenReturn(false);
+
+        assertTrue(check.exists(1L));
+
+        assertFalse(check.exists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+}
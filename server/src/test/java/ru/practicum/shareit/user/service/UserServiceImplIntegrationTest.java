@@ -0,0 +1,180 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.error.EntityNotFoundException;
+import ru.practicum.shareit.user.dto.UserBatchErrorDto;
+import ru.practicum.shareit.user.dto.UserBatchResultDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Без @Transactional: в кэш второго уровня попадает только закоммиченное
+@SpringBootTest
+class UserServiceImplIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private UserDto user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        user = userService.add(UserDto.builder().name("Cached").email("cached@example.com").build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findById(user.getId()).ifPresent(userRepository::delete);
+        userRepository.deleteAll(userRepository.findAll().stream()
+                .filter(saved -> saved.getEmail().startsWith("batch"))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testRepeatedLookupIsServedFromSecondLevelCache() {
+        userService.getById(user.getId());
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getDomainDataRegionStatistics("users").getHitCount();
+        userService.getById(user.getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(hits + 1, statistics.getDomainDataRegionStatistics("users").getHitCount());
+    }
+
+    @Test
+    void testUpdateReplacesCachedUser() {
+        userService.getById(user.getId());
+
+        userService.update(user.getId(), UserDto.builder().name("Renamed").build());
+
+        assertEquals("Renamed", userService.getById(user.getId()).getName());
+    }
+
+    @Test
+    void testDeleteEvictsCachedUser() {
+        userService.getById(user.getId());
+
+        userService.delete(user.getId());
+
+        assertThrows(EntityNotFoundException.class, () -> userService.getById(user.getId()));
+    }
+
+    @Test
+    void testBatchReportsFailedRowsAndSavesTheRest() {
+        String json = "[{\"name\": \"First\", \"email\": \"batch1@example.com\"},"
+                + "{\"name\": \"Broken\", \"email\": \"not-an-email\"},"
+                + "{\"name\": \"Taken\", \"email\": \"cached@example.com\"},"
+                + "{\"name\": \"Twice\", \"email\": \"batch1@example.com\"},"
+                + "42,"
+                + "{\"name\": \"Last\", \"email\": \"batch2@example.com\"}]";
+
+        UserBatchResultDto result = addBatch(json);
+
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(1, 2, 3, 4), result.getErrors().stream()
+                .map(UserBatchErrorDto::getIndex)
+                .collect(Collectors.toList()));
+        assertEquals("cached@example.com", result.getErrors().get(1).getEmail());
+    }
+
+    @Test
+    void testBatchInsertsAreGroupedIntoJdbcBatches() {
+        int size = UserServiceImpl.BATCH_SIZE * 3;
+        String json = IntStream.range(0, size)
+                .mapToObj(i -> "{\"name\": \"User" + i + "\", \"email\": \"batch" + i + "@example.com\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        UserBatchResultDto result = addBatch(json);
+
+        assertEquals(size, result.getCreated());
+        assertTrue(result.getErrors().isEmpty());
+        // На пачку: проверка email, последовательность и один пакет INSERT
+        assertTrue(statistics.getPrepareStatementCount() < size / 10,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testExportWritesOneLinePerUserWithoutFillingSecondLevelCache() throws IOException {
+        addBatch(IntStream.range(0, 5)
+                .mapToObj(i -> "{\"name\": \"User" + i + "\", \"email\": \"batch" + i + "@example.com\"}")
+                .collect(Collectors.joining(",", "[", "]")));
+        List<UserDto> expected = userService.getAll(0);
+        long puts = statistics.getDomainDataRegionStatistics("users").getPutCount();
+
+        List<UserDto> exported = export(0, null);
+
+        assertEquals(expected.stream().map(UserDto::getId).sorted().collect(Collectors.toList()),
+                exported.stream().map(UserDto::getId).collect(Collectors.toList()));
+        assertEquals(puts, statistics.getDomainDataRegionStatistics("users").getPutCount());
+    }
+
+    @Test
+    void testExportPageMatchesListPage() throws IOException {
+        addBatch(IntStream.range(0, 5)
+                .mapToObj(i -> "{\"name\": \"User" + i + "\", \"email\": \"batch" + i + "@example.com\"}")
+                .collect(Collectors.joining(",", "[", "]")));
+
+        assertEquals(userService.getAll(2, 2), export(2, 2));
+    }
+
+    @Test
+    void testFromWithoutSizeSkipsFirstUsers() throws IOException {
+        addBatch(IntStream.range(0, 5)
+                .mapToObj(i -> "{\"name\": \"User" + i + "\", \"email\": \"batch" + i + "@example.com\"}")
+                .collect(Collectors.joining(",", "[", "]")));
+        List<UserDto> all = userService.getAll(0);
+
+        List<UserDto> rest = userService.getAll(2);
+
+        assertEquals(all.subList(2, all.size()), rest);
+        assertEquals(rest, export(2, null));
+    }
+
+    private List<UserDto> export(int from, Integer size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = userService.export(from, size, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(count, lines.length);
+        List<UserDto> users = new ArrayList<>();
+        for (String line : lines) {
+            users.add(objectMapper.readValue(line, UserDto.class));
+        }
+        return users;
+    }
+
+    private UserBatchResultDto addBatch(String json) {
+        return userService.addBatch(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -23,6 +23,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceCheck userExistence;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -88,13 +91,14 @@ class UserServiceImplTest {
         userService.delete(1L);
 
         verify(userRepository, times(1)).deleteById(1L);
+        verify(userExistence).forget(1L);
     }
 
     @Test
     void testGetAllUsersWhenUsersExistThenReturnListOfUserDto() {
-        when(userRepository.findAll()).thenReturn(Collections.singletonList(user));
+        when(userRepository.findAllFrom(0)).thenReturn(Collections.singletonList(user));
 
-        List<UserDto> result = userService.getAll();
+        List<UserDto> result = userService.getAll(0);
 
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);